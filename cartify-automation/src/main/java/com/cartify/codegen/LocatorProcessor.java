@@ -0,0 +1,187 @@
+package com.cartify.codegen;
+
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.How;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LocatorProcessor: Compile-time replacement for PageFactory.initElements.
+ *
+ * For every page class with {@code @FindBy} fields of type By, generates a
+ * {@code <Page>_Locators} class whose {@code bind(page)} assigns plain By
+ * objects to those fields: no reflection and no proxies at construction.
+ * The fields must be package-private (or protected) and non-final.
+ *
+ * Locators are checked while compiling, so a typo such as an unbalanced
+ * bracket in a CSS selector or XPath fails the build instead of a test.
+ */
+@SupportedAnnotationTypes("org.openqa.selenium.support.FindBy")
+public class LocatorProcessor extends AbstractProcessor {
+
+    private static final String BY = "org.openqa.selenium.By";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        Map<TypeElement, List<String>> bindings = new LinkedHashMap<>();
+        Map<TypeElement, Boolean> valid = new LinkedHashMap<>();
+        for (Element element : round.getElementsAnnotatedWith(FindBy.class)) {
+            if (element.getKind() != ElementKind.FIELD) {
+                error(element, "@FindBy is only supported on fields");
+                continue;
+            }
+            VariableElement field = (VariableElement) element;
+            TypeElement page = (TypeElement) field.getEnclosingElement();
+            bindings.computeIfAbsent(page, p -> new ArrayList<>());
+            valid.putIfAbsent(page, true);
+            String expression = checkField(field);
+            if (expression == null) {
+                valid.put(page, false);
+            } else {
+                bindings.get(page).add("        page." + field.getSimpleName() + " = " + expression + ";");
+            }
+        }
+        for (Map.Entry<TypeElement, List<String>> entry : bindings.entrySet()) {
+            if (valid.get(entry.getKey())) {
+                write(entry.getKey(), entry.getValue());
+            }
+        }
+        return true;
+    }
+
+    // Returns the By expression for the field, or null after reporting why it is invalid
+    private String checkField(VariableElement field) {
+        if (!BY.equals(field.asType().toString())) {
+            error(field, "@FindBy fields must be declared as " + BY + " (found " + field.asType()
+                    + "); PageFactory proxies are not generated");
+            return null;
+        }
+        if (field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.FINAL)
+                || field.getModifiers().contains(Modifier.STATIC)) {
+            error(field, "@FindBy fields must be non-private, non-final instance fields so the generated binder can set them");
+            return null;
+        }
+        FindBy findBy = field.getAnnotation(FindBy.class);
+        Map<String, String> strategies = new LinkedHashMap<>();
+        putIfSet(strategies, "id", findBy.id());
+        putIfSet(strategies, "name", findBy.name());
+        putIfSet(strategies, "className", findBy.className());
+        putIfSet(strategies, "cssSelector", findBy.css());
+        putIfSet(strategies, "tagName", findBy.tagName());
+        putIfSet(strategies, "linkText", findBy.linkText());
+        putIfSet(strategies, "partialLinkText", findBy.partialLinkText());
+        putIfSet(strategies, "xpath", findBy.xpath());
+        if (findBy.how() != How.UNSET) {
+            String strategy = fromHow(findBy.how());
+            if (strategy == null) {
+                error(field, "@FindBy(how = " + findBy.how() + ") is not supported");
+                return null;
+            }
+            strategies.put(strategy, findBy.using());
+        }
+        if (strategies.size() != 1) {
+            error(field, "@FindBy must set exactly one locator strategy, found " + strategies.keySet());
+            return null;
+        }
+        Map.Entry<String, String> locator = strategies.entrySet().iterator().next();
+        String problem = LocatorSyntax.check(locator.getKey(), locator.getValue());
+        if (problem != null) {
+            error(field, "Invalid " + locator.getKey() + " locator \"" + locator.getValue() + "\": " + problem);
+            return null;
+        }
+        return "By." + locator.getKey() + "(\"" + escape(locator.getValue()) + "\")";
+    }
+
+    private static void putIfSet(Map<String, String> strategies, String strategy, String value) {
+        if (!value.isEmpty()) {
+            strategies.put(strategy, value);
+        }
+    }
+
+    private static String fromHow(How how) {
+        switch (how) {
+            case ID:
+                return "id";
+            case NAME:
+                return "name";
+            case CLASS_NAME:
+                return "className";
+            case CSS:
+                return "cssSelector";
+            case TAG_NAME:
+                return "tagName";
+            case LINK_TEXT:
+                return "linkText";
+            case PARTIAL_LINK_TEXT:
+                return "partialLinkText";
+            case XPATH:
+                return "xpath";
+            default:
+                return null;
+        }
+    }
+
+    private void write(TypeElement page, List<String> assignments) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(page);
+        String packageName = pkg.getQualifiedName().toString();
+        String pageName = page.getSimpleName().toString();
+        String binderName = pageName + "_Locators";
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import org.openqa.selenium.By;\n\n")
+                .append("import javax.annotation.processing.Generated;\n\n")
+                .append("/**\n * Locators of ").append(pageName).append(", generated from its @FindBy fields.\n */\n")
+                .append("@Generated(\"").append(LocatorProcessor.class.getName()).append("\")\n")
+                .append("final class ").append(binderName).append(" {\n\n")
+                .append("    private ").append(binderName).append("() {\n    }\n\n")
+                .append("    static void bind(").append(pageName).append(" page) {\n");
+        for (String assignment : assignments) {
+            source.append(assignment).append('\n');
+        }
+        source.append("    }\n}\n");
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, page);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (IOException e) {
+            error(page, "Failed to generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void error(Element element, String message) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
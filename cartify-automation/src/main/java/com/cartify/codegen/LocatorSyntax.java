@@ -0,0 +1,81 @@
+package com.cartify.codegen;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * LocatorSyntax: Cheap syntax checks for locator values, run by the
+ * LocatorProcessor at compile time. Catches empty values, unbalanced brackets
+ * and quotes, and values the By strategy rejects at runtime (such as a
+ * compound class name); it does not fully parse CSS or XPath.
+ */
+final class LocatorSyntax {
+
+    private LocatorSyntax() {
+    }
+
+    /**
+     * @return a description of the problem, or null if the value looks valid
+     */
+    static String check(String strategy, String value) {
+        if (value.trim().isEmpty()) {
+            return "value is empty";
+        }
+        switch (strategy) {
+            case "className":
+            case "tagName":
+                return value.trim().contains(" ") ? "must be a single name without spaces" : null;
+            case "cssSelector":
+                char first = value.trim().charAt(0);
+                if (first == '>' || first == '+' || first == '~' || first == ',') {
+                    return "starts with a combinator";
+                }
+                return checkBalanced(value, true);
+            case "xpath":
+                return value.trim().endsWith("/") ? "ends with a path separator" : checkBalanced(value, false);
+            default:
+                return null;
+        }
+    }
+
+    // Brackets must nest and quotes must close; brackets inside quotes are ignored.
+    // CSS escapes characters with a backslash, XPath has no escapes.
+    private static String checkBalanced(String value, boolean backslashEscapes) {
+        Deque<Character> open = new ArrayDeque<>();
+        char quote = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (quote != 0) {
+                if (c == '\\' && backslashEscapes) {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            switch (c) {
+                case '\'':
+                case '"':
+                    quote = c;
+                    break;
+                case '[':
+                case '(':
+                    open.push(c);
+                    break;
+                case ']':
+                case ')':
+                    char expected = c == ']' ? '[' : '(';
+                    if (open.isEmpty() || open.pop() != expected) {
+                        return "unbalanced '" + c + "' at position " + i;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (quote != 0) {
+            return "unclosed " + quote + " quote";
+        }
+        return open.isEmpty() ? null : "unclosed '" + open.peek() + "'";
+    }
+}
@@ -0,0 +1,45 @@
+package com.cartify.config;
+
+import java.net.URI;
+
+/**
+ * CartifyConfig: Single source of the site base URL for page objects and tests.
+ * Defaults to the live site; override with -Dcartify.baseUrl=... or let the
+ * local stand-in server set it when it starts.
+ */
+public final class CartifyConfig {
+
+    public static final String DEFAULT_BASE_URL = "https://cartify0.netlify.app";
+
+    private static volatile String baseUrl = trimTrailingSlash(System.getProperty("cartify.baseUrl", DEFAULT_BASE_URL));
+
+    private CartifyConfig() {
+    }
+
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public static void setBaseUrl(String url) {
+        baseUrl = trimTrailingSlash(url);
+    }
+
+    /**
+     * Scheme, host and port of the base URL, e.g. "http://localhost:8080".
+     */
+    public static String getOrigin() {
+        URI uri = URI.create(baseUrl);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    /**
+     * Resolves a site path such as "/login.html" against the base URL.
+     */
+    public static String url(String path) {
+        return baseUrl + (path.startsWith("/") ? path : "/" + path);
+    }
+
+    private static String trimTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
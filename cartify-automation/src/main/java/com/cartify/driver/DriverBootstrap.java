@@ -0,0 +1,198 @@
+package com.cartify.driver;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * DriverBootstrap: Resolves the chromedriver binary once per JVM and runs a
+ * single ChromeDriverService that every browser session is created against.
+ *
+ * Settings (system properties):
+ * cartify.chromedriver.path    - use this binary as-is (webdriver.chrome.driver is honoured too)
+ * cartify.chromedriver.version - pin the driver version instead of detecting the browser
+ * cartify.driver.cache         - driver cache directory (default ~/.cache/cartify/drivers)
+ * cartify.offline              - never hit the network; resolve from the cache or fail fast
+ */
+public final class DriverBootstrap {
+
+    private static final Pattern VERSION_DIR = Pattern.compile("\\d+(\\.\\d+)+");
+
+    private static volatile DriverBootstrap instance;
+
+    private final File driverBinary;
+    private final ChromeDriverService service;
+    private final long resolveMillis;
+    private final long serviceStartMillis;
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final AtomicLong sessionMillis = new AtomicLong();
+
+    private DriverBootstrap() {
+        long start = System.nanoTime();
+        this.driverBinary = resolveDriverBinary();
+        this.resolveMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        this.service = new ChromeDriverService.Builder()
+                .usingDriverExecutable(driverBinary)
+                .usingAnyFreePort()
+                .build();
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start chromedriver: " + driverBinary, e);
+        }
+        this.serviceStartMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("chromedriver resolved in " + resolveMillis + " ms, service started in "
+                + serviceStartMillis + " ms at " + service.getUrl() + " (" + driverBinary + ")");
+    }
+
+    public static DriverBootstrap getInstance() {
+        DriverBootstrap current = instance;
+        if (current == null) {
+            synchronized (DriverBootstrap.class) {
+                current = instance;
+                if (current == null) {
+                    current = new DriverBootstrap();
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Opens a new browser session on the shared chromedriver service.
+     */
+    public WebDriver newSession(ChromeOptions options) {
+        long start = System.nanoTime();
+        WebDriver driver = new SharedServiceChromeDriver(service.getUrl(), options);
+        sessionMillis.addAndGet((System.nanoTime() - start) / 1_000_000);
+        sessionCount.incrementAndGet();
+        return driver;
+    }
+
+    /**
+     * Startup time the old per-test setup paid on every test that this JVM no longer does:
+     * driver resolution and a chromedriver process per session.
+     */
+    public long getSavedMillisPerSession() {
+        return resolveMillis + serviceStartMillis;
+    }
+
+    public long getAverageSessionMillis() {
+        int sessions = sessionCount.get();
+        return sessions == 0 ? 0 : sessionMillis.get() / sessions;
+    }
+
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * Stops the shared service if it was started. Called by the DriverPool once its
+     * sessions are quit; the next newSession() call bootstraps again.
+     */
+    static synchronized void stopIfStarted() {
+        DriverBootstrap current = instance;
+        instance = null;
+        if (current != null && current.service.isRunning()) {
+            current.service.stop();
+        }
+    }
+
+    static boolean isStarted() {
+        return instance != null;
+    }
+
+    // ============================================
+    // Binary resolution
+    // ============================================
+
+    private static File resolveDriverBinary() {
+        String pinnedPath = System.getProperty("cartify.chromedriver.path", System.getProperty("webdriver.chrome.driver"));
+        if (pinnedPath != null && !pinnedPath.isEmpty()) {
+            File binary = new File(pinnedPath);
+            if (!binary.canExecute()) {
+                throw new IllegalStateException("Pinned chromedriver is missing or not executable: " + binary);
+            }
+            return binary;
+        }
+
+        Path cacheDir = Paths.get(System.getProperty("cartify.driver.cache",
+                System.getProperty("user.home") + "/.cache/cartify/drivers"));
+        String version = System.getProperty("cartify.chromedriver.version");
+
+        if (Boolean.getBoolean("cartify.offline")) {
+            return findCachedBinary(cacheDir, version).orElseThrow(() -> new IllegalStateException(
+                    "cartify.offline is set but no chromedriver" + (version != null ? " " + version : "")
+                            + " was found under " + cacheDir
+                            + ". Run once online or set cartify.chromedriver.path."));
+        }
+
+        WebDriverManager wdm = WebDriverManager.chromedriver().cachePath(cacheDir.toString());
+        if (version != null && !version.isEmpty()) {
+            wdm.driverVersion(version);
+        }
+        wdm.setup();
+        return new File(wdm.getDownloadedDriverPath());
+    }
+
+    /**
+     * Looks the binary up in the WebDriverManager cache layout, newest version first:
+     * &lt;cache&gt;/chromedriver/&lt;os&gt;/&lt;version&gt;/chromedriver, or for Chrome for Testing
+     * builds &lt;cache&gt;/chromedriver/&lt;os&gt;/&lt;version&gt;/chromedriver-&lt;platform&gt;/chromedriver.
+     */
+    private static Optional<File> findCachedBinary(Path cacheDir, String version) {
+        if (!Files.isDirectory(cacheDir)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            return files
+                    .filter(p -> p.getFileName().toString().matches("chromedriver(\\.exe)?"))
+                    .filter(Files::isExecutable)
+                    .filter(p -> version == null || version.isEmpty() || versionOf(p)
+                            .filter(v -> v.equals(version) || v.startsWith(version + "."))
+                            .isPresent())
+                    .max(Comparator.comparing(DriverBootstrap::versionKey))
+                    .map(Path::toFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan driver cache " + cacheDir, e);
+        }
+    }
+
+    // The nearest enclosing directory named like a version, e.g. 120.0.6099.109
+    private static Optional<String> versionOf(Path binary) {
+        for (Path dir = binary.getParent(); dir != null && dir.getFileName() != null; dir = dir.getParent()) {
+            String name = dir.getFileName().toString();
+            if (VERSION_DIR.matcher(name).matches()) {
+                return Optional.of(name);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String versionKey(Path binary) {
+        // Zero-pad each numeric part so 120.0.6099 sorts after 99.0.4844; unversioned paths sort first
+        StringBuilder key = new StringBuilder();
+        for (String part : versionOf(binary).orElse("").split("\\.")) {
+            key.append(String.format("%8s", part).replace(' ', '0')).append('.');
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.cartify.driver;
+
+import com.cartify.pages.support.PageStability;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * DriverFactory: Creates new Chrome sessions for the DriverPool.
+ * Holds the browser options that used to live in BaseTest.setUp();
+ * sessions are opened on the JVM-wide service from DriverBootstrap.
+ */
+public class DriverFactory {
+
+    public WebDriver createDriver() {
+        WebDriver driver = DriverBootstrap.getInstance().newSession(createOptions());
+        // No implicit wait: page objects wait explicitly, so absence checks return at once
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(60));
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+        installDocumentScripts(driver);
+        return driver;
+    }
+
+    /**
+     * Registers instrumentation that must run before any page script, e.g. the
+     * request tracking PageStability relies on.
+     */
+    private void installDocumentScripts(WebDriver driver) {
+        if (driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", PageStability.INSTRUMENTATION_SCRIPT));
+        }
+    }
+
+    protected ChromeOptions createOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--start-maximized");
+        options.addArguments("--remote-allow-origins=*");
+        // No goog:loggingPrefs: console messages reach the FlightRecorder as DevTools events
+        return options;
+    }
+}
@@ -0,0 +1,162 @@
+package com.cartify.driver;
+
+import com.cartify.driver.network.SessionNetwork;
+import com.cartify.driver.network.TrafficBaseline;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DriverPool: Leases warm browser sessions to tests.
+ * A session is reset between leases and recycled after a configurable
+ * number of uses, or as soon as it fails a health check.
+ *
+ * Settings (system properties):
+ * cartify.pool.maxUses - leases before a session is recycled (default 25)
+ * cartify.pool.maxIdle - idle sessions kept warm (default: cartify.threads, or one per core)
+ */
+public class DriverPool {
+
+    private static final DriverPool INSTANCE = new DriverPool(new DriverFactory(),
+            Integer.getInteger("cartify.pool.maxUses", 25),
+            Integer.getInteger("cartify.pool.maxIdle",
+                    Integer.getInteger("cartify.threads", Runtime.getRuntime().availableProcessors())));
+
+    private final DriverFactory factory;
+    private final int maxUses;
+    private final int maxIdle;
+
+    private final BlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledSession> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger leases = new AtomicInteger();
+
+    DriverPool(DriverFactory factory, int maxUses, int maxIdle) {
+        this.factory = factory;
+        this.maxUses = maxUses;
+        this.maxIdle = maxIdle;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+    }
+
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Leases a session to the calling thread, reusing a warm one when possible.
+     * The driver is also bound to the thread in the DriverRegistry.
+     */
+    public WebDriver acquire() {
+        PooledSession session = pollHealthySession();
+        if (session == null) {
+            session = new PooledSession(factory.createDriver());
+            sessions.add(session);
+        }
+        session.markLeased();
+        leases.incrementAndGet();
+        leased.put(session.getDriver(), session);
+        DriverRegistry.set(session.getDriver());
+        return session.getDriver();
+    }
+
+    /**
+     * Returns a session to the pool. It is reset before the next lease,
+     * or quit if it is worn out, unhealthy, or the pool is already full.
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        PooledSession session = leased.remove(driver);
+        if (DriverRegistry.get() == driver) {
+            DriverRegistry.remove();
+        }
+        if (session == null) {
+            // Not ours; behave like the old tearDown()
+            driver.quit();
+            return;
+        }
+        boolean reusable = session.getUses() < maxUses && idle.size() < maxIdle && session.reset();
+        if (reusable) {
+            idle.offerFirst(session);
+        } else {
+            discard(session);
+        }
+    }
+
+    /**
+     * Network interception state of a leased driver, e.g. replay cache misses.
+     */
+    public SessionNetwork getNetwork(WebDriver driver) {
+        PooledSession session = driver != null ? leased.get(driver) : null;
+        return session != null ? session.getNetwork() : null;
+    }
+
+    /**
+     * Recent commands, browser events and DOM snapshots of a leased driver.
+     */
+    public FlightRecorder getRecorder(WebDriver driver) {
+        PooledSession session = driver != null ? leased.get(driver) : null;
+        return session != null ? session.getRecorder() : null;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public synchronized void shutdown() {
+        printStartupSavings();
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            discard(session);
+        }
+        for (PooledSession remaining : sessions) {
+            discard(remaining);
+        }
+        leased.clear();
+        DriverBootstrap.stopIfStarted();
+        SessionNetwork.saveRecording();
+        TrafficBaseline.saveShared();
+    }
+
+    /**
+     * Compares startup cost against the old setup, which resolved the driver,
+     * started chromedriver and opened a session for every test.
+     */
+    private void printStartupSavings() {
+        int leaseCount = leases.getAndSet(0);
+        if (leaseCount == 0 || !DriverBootstrap.isStarted()) {
+            return;
+        }
+        DriverBootstrap bootstrap = DriverBootstrap.getInstance();
+        long perSession = bootstrap.getAverageSessionMillis();
+        long bootstrapSaved = bootstrap.getSavedMillisPerSession() * (leaseCount - 1);
+        long poolSaved = perSession * (leaseCount - bootstrap.getSessionCount());
+        System.out.println("Driver startup: " + leaseCount + " tests, " + bootstrap.getSessionCount()
+                + " browser sessions (avg " + perSession + " ms). Saved ~" + (bootstrapSaved + poolSaved) / leaseCount
+                + " ms per test (" + bootstrap.getSavedMillisPerSession() + " ms driver resolution/service start, "
+                + poolSaved / leaseCount + " ms session reuse).");
+    }
+
+    private PooledSession pollHealthySession() {
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            if (session.isHealthy()) {
+                return session;
+            }
+            discard(session);
+        }
+        return null;
+    }
+
+    private void discard(PooledSession session) {
+        if (sessions.remove(session)) {
+            session.quit();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.cartify.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * DriverRegistry: Binds the driver leased to a test to the thread running it,
+ * so parallel tests, listeners and page objects never share a session.
+ */
+public final class DriverRegistry {
+
+    private static final ThreadLocal<WebDriver> DRIVERS = new ThreadLocal<>();
+
+    private DriverRegistry() {
+    }
+
+    /**
+     * The driver bound to the current thread, or null if it holds none.
+     */
+    public static WebDriver get() {
+        return DRIVERS.get();
+    }
+
+    static void set(WebDriver driver) {
+        DRIVERS.set(driver);
+    }
+
+    static void remove() {
+        DRIVERS.remove();
+    }
+}
@@ -0,0 +1,285 @@
+package com.cartify.driver;
+
+import com.cartify.driver.metrics.CommandSample;
+import com.cartify.reporting.Shard;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * FlightRecorder: Always-on record of what one browser session did recently.
+ * Fixed-size ring buffers hold the last WebDriver commands with their timings,
+ * console messages and network errors, and a gzip-compressed DOM snapshot taken
+ * after each navigation, so memory stays constant however long the suite runs.
+ * Nothing is written to disk unless a test fails and its recording is dumped.
+ *
+ * Console messages and network errors are pushed by the browser as DevTools
+ * events (Runtime, Log) instead of being polled from the driver logs.
+ *
+ * Settings (system properties):
+ * cartify.recorder           - false disables the recorder (default true)
+ * cartify.recorder.commands  - commands kept (default 200)
+ * cartify.recorder.events    - console messages and network errors kept (default 100)
+ * cartify.recorder.snapshots - DOM snapshots kept (default 5)
+ * cartify.recorder.dir       - where failed tests' recordings go (default target/flight-recorder)
+ */
+public class FlightRecorder {
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("cartify.recorder", "true"));
+    private static final int COMMANDS_KEPT = Integer.getInteger("cartify.recorder.commands", 200);
+    private static final int EVENTS_KEPT = Integer.getInteger("cartify.recorder.events", 100);
+    private static final int SNAPSHOTS_KEPT = Integer.getInteger("cartify.recorder.snapshots", 5);
+    private static final Path DUMP_DIR = Paths.get(
+            System.getProperty("cartify.recorder.dir", Shard.pathString("target/flight-recorder")));
+
+    private static final int MAX_TEXT_LENGTH = 2_000;
+    private static final int MAX_SNAPSHOT_BYTES = 1 << 20;
+    // Used to spot navigations when the browser has no DevTools to report them
+    private static final Set<String> NAVIGATION_COMMANDS = Set.of(
+            "WebDriver.get", "Navigation.to", "Navigation.back", "Navigation.forward", "Navigation.refresh");
+
+    // Undecorated, so the recorder's own calls are neither timed nor recorded
+    private final WebDriver driver;
+    private final RingBuffer<Map<String, Object>> commands = new RingBuffer<>(COMMANDS_KEPT);
+    private final RingBuffer<Map<String, Object>> events = new RingBuffer<>(EVENTS_KEPT);
+    private final RingBuffer<DomSnapshot> snapshots = new RingBuffer<>(SNAPSHOTS_KEPT);
+    private final boolean browserEvents;
+    private volatile boolean navigated;
+
+    FlightRecorder(WebDriver driver) {
+        this.driver = driver;
+        this.browserEvents = ENABLED && listenToBrowser();
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Forgets the previous lease, so a dump only shows the current test.
+     */
+    void startLease() {
+        commands.clear();
+        events.clear();
+        snapshots.clear();
+        navigated = false;
+    }
+
+    /**
+     * Called for every command of the session, on the thread that issued it.
+     * The first command after a navigation also snapshots the new page.
+     */
+    void record(CommandSample sample) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("time", Instant.now().toString());
+        entry.putAll(sample.toMap());
+        commands.add(entry);
+        if (!browserEvents && !sample.isFailed() && NAVIGATION_COMMANDS.contains(sample.getCommand())) {
+            navigated = true;
+        }
+        if (navigated) {
+            navigated = false;
+            captureSnapshot("navigation");
+        }
+    }
+
+    /**
+     * Adds a compressed snapshot of the current DOM, e.g. when a test fails.
+     */
+    public void captureSnapshot(String reason) {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            snapshots.add(DomSnapshot.of(reason, driver.getCurrentUrl(), driver.getPageSource()));
+        } catch (WebDriverException | IOException e) {
+            // e.g. an alert is open; the recording goes on without this snapshot
+        }
+    }
+
+    /**
+     * The recorded commands, oldest first.
+     */
+    public List<Map<String, Object>> getCommands() {
+        return commands.toList();
+    }
+
+    /**
+     * The recorded console messages and network errors, oldest first.
+     */
+    public List<Map<String, Object>> getEvents() {
+        return events.toList();
+    }
+
+    /**
+     * Writes the recording to its own directory: recording.json with the commands,
+     * events and snapshot index, plus every DOM snapshot as an HTML file.
+     *
+     * @return the directory written
+     */
+    public Path dump(String name) throws IOException {
+        Path directory = DUMP_DIR.toAbsolutePath().resolve(name);
+        Files.createDirectories(directory);
+        List<Map<String, Object>> snapshotIndex = new ArrayList<>();
+        int number = 0;
+        for (DomSnapshot snapshot : snapshots.toList()) {
+            String file = "dom-" + (++number) + ".html";
+            Files.write(directory.resolve(file), snapshot.html());
+            Map<String, Object> entry = snapshot.toMap();
+            entry.put("file", file);
+            snapshotIndex.add(entry);
+        }
+        Map<String, Object> recording = new LinkedHashMap<>();
+        recording.put("commands", getCommands());
+        recording.put("events", getEvents());
+        recording.put("snapshots", snapshotIndex);
+        Files.writeString(directory.resolve("recording.json"), new Json().toJson(recording));
+        return directory;
+    }
+
+    // ============================================
+    // Browser events (DevTools)
+    // ============================================
+
+    private boolean listenToBrowser() {
+        if (!(driver instanceof HasDevTools)) {
+            return false;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(event("Runtime.consoleAPICalled"), this::onConsoleMessage);
+            devTools.addListener(event("Log.entryAdded"), this::onLogEntry);
+            devTools.addListener(event("Page.frameNavigated"), this::onFrameNavigated);
+            devTools.send(new Command<Void>("Runtime.enable", Map.of()));
+            devTools.send(new Command<Void>("Log.enable", Map.of()));
+            devTools.send(new Command<Void>("Page.enable", Map.of()));
+            return true;
+        } catch (RuntimeException e) {
+            System.out.println("Flight recorder running without browser events: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private void onConsoleMessage(Map<String, Object> params) {
+        StringBuilder text = new StringBuilder();
+        Object args = params.get("args");
+        if (args instanceof List) {
+            for (Object arg : (List<?>) args) {
+                if (arg instanceof Map) {
+                    Map<?, ?> remoteObject = (Map<?, ?>) arg;
+                    Object value = remoteObject.containsKey("value") ? remoteObject.get("value")
+                            : remoteObject.get("description");
+                    text.append(text.length() > 0 ? " " : "").append(value);
+                }
+            }
+        }
+        addEvent("console", String.valueOf(params.get("type")), text.toString(), null);
+    }
+
+    // Browser-generated messages, including network errors such as failed or 4xx/5xx loads
+    private void onLogEntry(Map<String, Object> params) {
+        Object entry = params.get("entry");
+        if (entry instanceof Map) {
+            Map<?, ?> log = (Map<?, ?>) entry;
+            addEvent(String.valueOf(log.get("source")), String.valueOf(log.get("level")),
+                    String.valueOf(log.get("text")), (String) log.get("url"));
+        }
+    }
+
+    private void onFrameNavigated(Map<String, Object> params) {
+        Object frame = params.get("frame");
+        if (frame instanceof Map && ((Map<?, ?>) frame).get("parentId") == null) {
+            navigated = true;
+        }
+    }
+
+    private void addEvent(String source, String level, String text, String url) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("time", Instant.now().toString());
+        event.put("source", source);
+        event.put("level", level);
+        event.put("text", text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) + "..." : text);
+        if (url != null) {
+            event.put("url", url);
+        }
+        events.add(event);
+    }
+
+    // ============================================
+    // DOM snapshots
+    // ============================================
+
+    private static final class DomSnapshot {
+
+        private final String time = Instant.now().toString();
+        private final String reason;
+        private final String url;
+        private final int length;
+        private final byte[] gzipped;
+
+        private DomSnapshot(String reason, String url, int length, byte[] gzipped) {
+            this.reason = reason;
+            this.url = url;
+            this.length = length;
+            this.gzipped = gzipped;
+        }
+
+        static DomSnapshot of(String reason, String url, String html) throws IOException {
+            byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            if (compressed.size() > MAX_SNAPSHOT_BYTES) {
+                // Keeps the buffer's memory bounded; the URL is still worth knowing
+                return new DomSnapshot(reason + " (page too large, not kept)", url, bytes.length, new byte[0]);
+            }
+            return new DomSnapshot(reason, url, bytes.length, compressed.toByteArray());
+        }
+
+        byte[] html() throws IOException {
+            if (gzipped.length == 0) {
+                return new byte[0];
+            }
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+                return in.readAllBytes();
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("time", time);
+            map.put("reason", reason);
+            map.put("url", url);
+            map.put("htmlBytes", length);
+            map.put("compressedBytes", gzipped.length);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.cartify.driver;
+
+import com.cartify.config.CartifyConfig;
+import com.cartify.driver.metrics.CommandMetrics;
+import com.cartify.driver.network.SessionNetwork;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PooledSession: A browser session owned by the DriverPool.
+ * Knows how to health-check itself and wipe its state between leases.
+ */
+public class PooledSession {
+
+    private final WebDriver driver;
+    private final FlightRecorder recorder;
+    private final SessionNetwork network;
+    private final String primaryWindow;
+    private int uses;
+
+    /**
+     * Takes over a new session. Tests get it decorated, so every command is
+     * timed by CommandMetrics and kept by the session's flight recorder.
+     */
+    PooledSession(WebDriver session) {
+        this.recorder = new FlightRecorder(session);
+        this.driver = CommandMetrics.instrument(session, FlightRecorder.isEnabled() ? recorder::record : null);
+        this.network = new SessionNetwork(driver);
+        this.primaryWindow = driver.getWindowHandle();
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public SessionNetwork getNetwork() {
+        return network;
+    }
+
+    public FlightRecorder getRecorder() {
+        return recorder;
+    }
+
+    public int getUses() {
+        return uses;
+    }
+
+    void markLeased() {
+        uses++;
+        network.startLease();
+        recorder.startLease();
+    }
+
+    /**
+     * Cheap liveness probe: a crashed browser or a dead chromedriver
+     * fails this with a WebDriverException.
+     */
+    boolean isHealthy() {
+        try {
+            return driver.getWindowHandles().contains(primaryWindow);
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resets the session so the next lease starts from a clean browser:
+     * no alerts, no extra windows, no cookies or web storage, no implicit wait, on about:blank.
+     *
+     * @return false if the session could not be reset and should be recycled
+     */
+    boolean reset() {
+        try {
+            dismissAlert();
+            closeExtraWindows();
+            clearStorage();
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            driver.get("about:blank");
+            return true;
+        } catch (WebDriverException e) {
+            System.out.println("Failed to reset pooled session, recycling it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    void quit() {
+        try {
+            network.close();
+            driver.quit();
+        } catch (WebDriverException e) {
+            // Browser already gone; nothing left to clean up
+        }
+    }
+
+    private void dismissAlert() {
+        try {
+            driver.switchTo().alert().dismiss();
+        } catch (NoAlertPresentException e) {
+            // No alert open
+        }
+    }
+
+    private void closeExtraWindows() {
+        Set<String> handles = driver.getWindowHandles();
+        for (String handle : handles) {
+            if (!handle.equals(primaryWindow)) {
+                driver.switchTo().window(handle).close();
+            }
+        }
+        driver.switchTo().window(primaryWindow);
+    }
+
+    private void clearStorage() {
+        // Web storage is per origin, so clear it while still on the page the test left us on
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        if (driver instanceof HasCdp) {
+            // The test may have ended elsewhere (e.g. still on about:blank), so clear the site's origin by name too
+            ((HasCdp) driver).executeCdpCommand("Storage.clearDataForOrigin", Map.of(
+                    "origin", CartifyConfig.getOrigin(),
+                    "storageTypes", "local_storage,session_storage,indexeddb"));
+            // WebDriver only deletes cookies visible to the current document; CDP clears them all
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.cartify.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RingBuffer: Keeps the last N items added; older ones are overwritten,
+ * so memory stays the same however long the session runs.
+ */
+final class RingBuffer<T> {
+
+    private final Object[] items;
+    private int next;
+    private int size;
+
+    RingBuffer(int capacity) {
+        this.items = new Object[Math.max(1, capacity)];
+    }
+
+    synchronized void add(T item) {
+        items[next] = item;
+        next = (next + 1) % items.length;
+        size = Math.min(size + 1, items.length);
+    }
+
+    /**
+     * The items still held, oldest first.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized List<T> toList() {
+        List<T> list = new ArrayList<>(size);
+        int start = (next - size + items.length) % items.length;
+        for (int i = 0; i < size; i++) {
+            list.add((T) items[(start + i) % items.length]);
+        }
+        return list;
+    }
+
+    synchronized void clear() {
+        Arrays.fill(items, null);
+        next = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.cartify.driver;
+
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.chromium.ChromiumDriverCommand;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.http.HttpMethod;
+
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * SharedServiceChromeDriver: A Chrome session created against an already
+ * running chromedriver process.
+ * ChromeDriver's own executor stops its service on quit(), which would kill
+ * every other session; a plain HttpCommandExecutor leaves it running.
+ */
+class SharedServiceChromeDriver extends ChromiumDriver {
+
+    private static final Map<String, CommandInfo> CHROMIUM_COMMANDS = Map.of(
+            ChromiumDriverCommand.EXECUTE_CDP_COMMAND,
+            new CommandInfo("/session/:sessionId/goog/cdp/execute", HttpMethod.POST));
+
+    SharedServiceChromeDriver(URL serviceUrl, ChromeOptions options) {
+        super(new HttpCommandExecutor(CHROMIUM_COMMANDS, serviceUrl), options, ChromeOptions.CAPABILITY);
+    }
+}
@@ -0,0 +1,94 @@
+package com.cartify.driver.metrics;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * CommandListener: Times the calls made through one decorated driver and hands
+ * them to CommandMetrics and the session's observer. Elements remember the By
+ * they were found with, so a later click or getText can be reported with its locator.
+ */
+final class CommandListener implements WebDriverListener {
+
+    private final ThreadLocal<Deque<Long>> started = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<Object, String> locators = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Consumer<CommandSample> observer;
+
+    CommandListener(Consumer<CommandSample> observer) {
+        this.observer = observer;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        started.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        long micros = elapsedMicros();
+        if (method.getDeclaringClass() == Object.class) {
+            return;
+        }
+        String locator = locatorOf(target, args);
+        rememberLocator(locator, args, result);
+        publish(CommandMetrics.record(commandName(method), locator, micros, false));
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        long micros = elapsedMicros();
+        if (method.getDeclaringClass() == Object.class) {
+            return;
+        }
+        publish(CommandMetrics.record(commandName(method), locatorOf(target, args), micros, true));
+    }
+
+    private void publish(CommandSample sample) {
+        if (observer != null) {
+            observer.accept(sample);
+        }
+    }
+
+    private long elapsedMicros() {
+        Long start = started.get().poll();
+        return start != null ? (System.nanoTime() - start) / 1_000 : 0;
+    }
+
+    private String locatorOf(Object target, Object[] args) {
+        if (args != null && args.length > 0 && args[0] instanceof By) {
+            return args[0].toString();
+        }
+        return target instanceof WebElement ? locators.get(target) : null;
+    }
+
+    private void rememberLocator(String locator, Object[] args, Object result) {
+        if (locator == null || args == null || args.length == 0 || !(args[0] instanceof By)) {
+            return;
+        }
+        if (result instanceof WebElement) {
+            locators.put(result, locator);
+        } else if (result instanceof List) {
+            for (Object element : (List<?>) result) {
+                if (element instanceof WebElement) {
+                    locators.put(element, locator);
+                }
+            }
+        }
+    }
+
+    // WebDriver.findElement, WebElement.click, JavascriptExecutor.executeScript, Navigation.to, ...
+    private static String commandName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,237 @@
+package com.cartify.driver.metrics;
+
+import com.cartify.reporting.Shard;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * CommandMetrics: Times every WebDriver command of the run.
+ * Drivers from the DriverFactory are wrapped in an EventFiringDecorator whose
+ * listener records each command against the page-object method that issued it
+ * (found by walking the stack), both for the whole run and for the test
+ * currently running on the thread. Only the run profile stays in memory: each
+ * test's profile is appended to a JSON Lines file as the test finishes.
+ *
+ * Settings (system properties):
+ * cartify.metrics           - false turns the aggregation off (default true)
+ * cartify.metrics.file      - JSON export of the run (default target/command-metrics.json)
+ * cartify.metrics.testsFile - one line per test (default target/command-metrics-tests.jsonl)
+ */
+public final class CommandMetrics {
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("cartify.metrics", "true"));
+    private static final Path EXPORT_FILE = Paths.get(
+            System.getProperty("cartify.metrics.file", Shard.pathString("target/command-metrics.json")));
+    private static final Path TESTS_FILE = Paths.get(
+            System.getProperty("cartify.metrics.testsFile", Shard.pathString("target/command-metrics-tests.jsonl")));
+
+    private static final String FRAMEWORK_PREFIX = "com.cartify.";
+    private static final String PAGES_PREFIX = "com.cartify.pages.";
+    private static final String BASE_PAGE = "com.cartify.pages.BasePage";
+    private static final String OWN_PREFIX = CommandMetrics.class.getPackageName() + ".";
+    // Commands issued from these classes are polls of a wait, not actions
+    private static final Set<String> WAIT_CLASSES = Set.of(
+            "org.openqa.selenium.support.ui.FluentWait",
+            "com.cartify.pages.support.DomWaits",
+            "com.cartify.pages.support.PageStability");
+
+    private static final StackWalker STACK = StackWalker.getInstance();
+    private static final CommandProfile RUN = new CommandProfile("run");
+    private static final ThreadLocal<CommandProfile> CURRENT_TEST = new ThreadLocal<>();
+    // Opened with the first finished test, replacing the file of an earlier run
+    private static BufferedWriter testsWriter;
+
+    private CommandMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Wraps a new session so its commands are timed. Each sample is also handed
+     * to the observer, if any, e.g. the session's flight recorder.
+     * Returns the driver unchanged when there is nothing to record.
+     */
+    public static WebDriver instrument(WebDriver driver, Consumer<CommandSample> observer) {
+        if (!ENABLED && observer == null) {
+            return driver;
+        }
+        return new EventFiringDecorator<WebDriver>(new CommandListener(observer)).decorate(driver);
+    }
+
+    /**
+     * Starts a per-test profile on the calling thread; commands recorded until
+     * finishTest() count towards it as well as towards the run.
+     */
+    public static CommandProfile startTest(String name) {
+        CommandProfile profile = new CommandProfile(name);
+        CURRENT_TEST.set(profile);
+        return profile;
+    }
+
+    /**
+     * Ends the calling thread's test profile and appends it to the tests file.
+     *
+     * @return the finished profile, or null if none was started
+     */
+    public static CommandProfile finishTest() {
+        CommandProfile profile = CURRENT_TEST.get();
+        if (profile == null) {
+            return null;
+        }
+        CURRENT_TEST.remove();
+        profile.finish();
+        appendTest(profile);
+        return profile;
+    }
+
+    public static CommandProfile getRun() {
+        return RUN;
+    }
+
+    public static Path getExportFile() {
+        return EXPORT_FILE;
+    }
+
+    public static Path getTestsFile() {
+        return TESTS_FILE;
+    }
+
+    /**
+     * Writes the run profile as JSON, pointing at the per-test lines, and
+     * closes the tests file; a later test starts a new one.
+     */
+    public static void writeJson(Path file) {
+        closeTestsFile();
+        Map<String, Object> export = new LinkedHashMap<>();
+        export.put("run", RUN.toMap());
+        export.put("testsFile", TESTS_FILE.toAbsolutePath().toString());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, new Json().toJson(export));
+        } catch (IOException e) {
+            System.out.println("Failed to write command metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    // Each line is flushed as written, so a crashed JVM still leaves the tests so far
+    private static synchronized void appendTest(CommandProfile profile) {
+        try {
+            if (testsWriter == null) {
+                Path parent = TESTS_FILE.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                testsWriter = Files.newBufferedWriter(TESTS_FILE, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            // Rendered apart: closing a JsonOutput closes the writer it was given
+            StringWriter line = new StringWriter();
+            try (JsonOutput output = new Json().newOutput(line)) {
+                output.setPrettyPrint(false).write(profile.toMap());
+            }
+            testsWriter.write(line.toString());
+            testsWriter.newLine();
+            testsWriter.flush();
+        } catch (IOException e) {
+            System.out.println("Failed to write command metrics to " + TESTS_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static synchronized void closeTestsFile() {
+        if (testsWriter == null) {
+            return;
+        }
+        try {
+            testsWriter.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close " + TESTS_FILE + ": " + e.getMessage());
+        }
+        testsWriter = null;
+    }
+
+    static CommandSample record(String command, String locator, long micros, boolean failed) {
+        CommandSample sample = STACK.walk(frames -> attribute(frames.iterator(), command, locator, micros, failed));
+        if (ENABLED) {
+            RUN.record(sample);
+            CommandProfile test = CURRENT_TEST.get();
+            if (test != null) {
+                test.record(sample);
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * Attributes a command to the innermost page-object method on the stack,
+     * e.g. CheckoutPage.fillEmail rather than the BasePage helper it went through.
+     * Outside page objects, the innermost framework method is used instead.
+     */
+    private static CommandSample attribute(Iterator<StackWalker.StackFrame> frames, String command,
+                                           String locator, long micros, boolean failed) {
+        boolean waiting = false;
+        String fallback = null;
+        while (frames.hasNext()) {
+            StackWalker.StackFrame frame = frames.next();
+            String className = frame.getClassName();
+            if (WAIT_CLASSES.contains(className)) {
+                waiting = true;
+                continue;
+            }
+            if (!className.startsWith(FRAMEWORK_PREFIX) || className.startsWith(OWN_PREFIX)) {
+                continue;
+            }
+            if (isPageObject(className)) {
+                return new CommandSample(command, locator, label(frame), micros, waiting, failed);
+            }
+            if (fallback == null) {
+                fallback = label(frame);
+            }
+        }
+        return new CommandSample(command, locator, fallback != null ? fallback : "(unattributed)",
+                micros, waiting, failed);
+    }
+
+    // Page objects live directly in com.cartify.pages; support and components are helpers
+    private static boolean isPageObject(String className) {
+        return className.startsWith(PAGES_PREFIX)
+                && className.indexOf('.', PAGES_PREFIX.length()) < 0
+                && !className.startsWith(BASE_PAGE);
+    }
+
+    private static String label(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int nested = simpleName.indexOf('$');
+        if (nested > 0) {
+            simpleName = simpleName.substring(0, nested);
+        }
+        String method = frame.getMethodName();
+        if (method.startsWith("lambda$")) {
+            // lambda$fillEmail$3 -> fillEmail
+            int end = method.indexOf('$', "lambda$".length());
+            method = method.substring("lambda$".length(), end > 0 ? end : method.length());
+        }
+        return simpleName + "." + method;
+    }
+}
@@ -0,0 +1,138 @@
+package com.cartify.driver.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CommandProfile: The commands of one scope, a single test or the whole run,
+ * aggregated per page method and per command, plus the slowest few samples.
+ */
+public final class CommandProfile {
+
+    private static final int SLOWEST_KEPT = 5;
+    private static final Comparator<CommandSample> SLOWEST_FIRST =
+            Comparator.comparingLong(CommandSample::getMicros).reversed();
+
+    private final String name;
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+    private final CommandStats total = new CommandStats();
+    private final Map<String, CommandStats> byPageMethod = new ConcurrentHashMap<>();
+    private final Map<String, CommandStats> byCommand = new ConcurrentHashMap<>();
+    private final List<CommandSample> slowest = new ArrayList<>();
+
+    CommandProfile(String name) {
+        this.name = name;
+    }
+
+    void record(CommandSample sample) {
+        total.record(sample);
+        byPageMethod.computeIfAbsent(sample.getPageMethod(), key -> new CommandStats()).record(sample);
+        byCommand.computeIfAbsent(sample.getCommand(), key -> new CommandStats()).record(sample);
+        synchronized (slowest) {
+            if (slowest.size() < SLOWEST_KEPT || sample.getMicros() > slowest.get(slowest.size() - 1).getMicros()) {
+                slowest.add(sample);
+                slowest.sort(SLOWEST_FIRST);
+                if (slowest.size() > SLOWEST_KEPT) {
+                    slowest.remove(SLOWEST_KEPT);
+                }
+            }
+        }
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Wall time of the scope; until it finishes, the time so far.
+     */
+    public long getWallMicros() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return (end - startNanos) / 1_000;
+    }
+
+    public CommandStats getTotal() {
+        return total;
+    }
+
+    public Map<String, CommandStats> getByPageMethod() {
+        return byPageMethod;
+    }
+
+    public Map<String, CommandStats> getByCommand() {
+        return byCommand;
+    }
+
+    public List<CommandSample> getSlowest() {
+        synchronized (slowest) {
+            return new ArrayList<>(slowest);
+        }
+    }
+
+    /**
+     * Page methods ordered by total command time, most expensive first.
+     */
+    public List<Map.Entry<String, CommandStats>> pageMethodsByTotal() {
+        List<Map.Entry<String, CommandStats>> entries = new ArrayList<>(byPageMethod.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, CommandStats> entry) -> entry.getValue().getLatency().getTotalMicros()).reversed());
+        return entries;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", name);
+        map.put("wallMs", LatencyHistogram.millisOf(getWallMicros()));
+        map.put("commands", total.toMap());
+        Map<String, Object> pageMethods = new LinkedHashMap<>();
+        for (Map.Entry<String, CommandStats> entry : pageMethodsByTotal()) {
+            pageMethods.put(entry.getKey(), entry.getValue().toMap());
+        }
+        map.put("pageMethods", pageMethods);
+        Map<String, Object> commands = new LinkedHashMap<>();
+        byCommand.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> commands.put(entry.getKey(), entry.getValue().toMap()));
+        map.put("byCommand", commands);
+        List<Map<String, Object>> slowestSamples = new ArrayList<>();
+        for (CommandSample sample : getSlowest()) {
+            slowestSamples.add(sample.toMap());
+        }
+        map.put("slowest", slowestSamples);
+        return map;
+    }
+
+    /**
+     * One line per page method, for console and report logs.
+     */
+    public String summary(int limit) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(name).append(": ").append(total.getLatency().getCount()).append(" commands, ")
+                .append(LatencyHistogram.millisOf(total.getLatency().getTotalMicros())).append(" ms of ")
+                .append(LatencyHistogram.millisOf(getWallMicros())).append(" ms wall (")
+                .append(LatencyHistogram.millisOf(total.getWaitMicros())).append(" ms waiting, ")
+                .append(LatencyHistogram.millisOf(total.getActMicros())).append(" ms acting)");
+        int shown = 0;
+        for (Map.Entry<String, CommandStats> entry : pageMethodsByTotal()) {
+            if (shown++ == limit) {
+                break;
+            }
+            LatencyHistogram latency = entry.getValue().getLatency();
+            summary.append(System.lineSeparator()).append("  ").append(entry.getKey()).append(": ")
+                    .append(latency.getCount()).append(" commands, p50 ")
+                    .append(LatencyHistogram.millisOf(latency.percentileMicros(50))).append(" ms, p95 ")
+                    .append(LatencyHistogram.millisOf(latency.percentileMicros(95))).append(" ms, total ")
+                    .append(LatencyHistogram.millisOf(latency.getTotalMicros())).append(" ms");
+        }
+        return summary.toString();
+    }
+}
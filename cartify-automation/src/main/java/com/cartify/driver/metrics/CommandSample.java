@@ -0,0 +1,74 @@
+package com.cartify.driver.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CommandSample: One WebDriver command, e.g. WebElement.click on #place-order
+ * issued by CheckoutPage.placeOrder, and how long the round trip took.
+ */
+public final class CommandSample {
+
+    private final String command;
+    private final String locator;
+    private final String pageMethod;
+    private final long micros;
+    private final boolean waiting;
+    private final boolean failed;
+
+    CommandSample(String command, String locator, String pageMethod, long micros, boolean waiting, boolean failed) {
+        this.command = command;
+        this.locator = locator;
+        this.pageMethod = pageMethod;
+        this.micros = micros;
+        this.waiting = waiting;
+        this.failed = failed;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * The By the command located, or the By its element was found with; null if neither applies.
+     */
+    public String getLocator() {
+        return locator;
+    }
+
+    public String getPageMethod() {
+        return pageMethod;
+    }
+
+    public long getMicros() {
+        return micros;
+    }
+
+    /**
+     * True if the command was a poll issued from inside a wait rather than an action.
+     */
+    public boolean isWaiting() {
+        return waiting;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("command", command);
+        map.put("locator", locator);
+        map.put("pageMethod", pageMethod);
+        map.put("ms", LatencyHistogram.millisOf(micros));
+        map.put("waiting", waiting);
+        map.put("failed", failed);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return pageMethod + " " + command + (locator != null ? " " + locator : "") + " "
+                + LatencyHistogram.millisOf(micros) + " ms" + (failed ? " (failed)" : "");
+    }
+}
@@ -0,0 +1,51 @@
+package com.cartify.driver.metrics;
+
+import java.util.Map;
+
+/**
+ * CommandStats: Latency histogram of a group of commands, with the time
+ * split into waiting (polls issued by a wait) and acting (everything else).
+ */
+public final class CommandStats {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long waitMicros;
+    private long actMicros;
+    private long failures;
+
+    synchronized void record(CommandSample sample) {
+        latency.record(sample.getMicros());
+        if (sample.isWaiting()) {
+            waitMicros += sample.getMicros();
+        } else {
+            actMicros += sample.getMicros();
+        }
+        if (sample.isFailed()) {
+            failures++;
+        }
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public synchronized long getWaitMicros() {
+        return waitMicros;
+    }
+
+    public synchronized long getActMicros() {
+        return actMicros;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = latency.toMap();
+        map.put("waitMs", LatencyHistogram.millisOf(getWaitMicros()));
+        map.put("actMs", LatencyHistogram.millisOf(getActMicros()));
+        map.put("failures", getFailures());
+        return map;
+    }
+}
@@ -0,0 +1,97 @@
+package com.cartify.driver.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LatencyHistogram: Command latencies in log-scaled buckets, four per power of two.
+ * Percentiles are accurate to about 12% without keeping individual samples,
+ * so recording stays constant-time and constant-memory for any run length.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalMicros;
+    private long maxMicros;
+
+    public synchronized void record(long micros) {
+        long value = Math.max(micros, 0);
+        counts[bucketOf(value)]++;
+        count++;
+        totalMicros += value;
+        maxMicros = Math.max(maxMicros, value);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getTotalMicros() {
+        return totalMicros;
+    }
+
+    public synchronized long getMaxMicros() {
+        return maxMicros;
+    }
+
+    /**
+     * Midpoint of the bucket holding the given percentile (0-100), capped at the maximum seen.
+     */
+    public synchronized long percentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(midpoint(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    /**
+     * count, p50, p95, max and total in milliseconds, for the JSON export.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", getCount());
+        map.put("p50Ms", millisOf(percentileMicros(50)));
+        map.put("p95Ms", millisOf(percentileMicros(95)));
+        map.put("maxMs", millisOf(getMaxMicros()));
+        map.put("totalMs", millisOf(getTotalMicros()));
+        return map;
+    }
+
+    /**
+     * Microseconds as milliseconds, rounded to a tenth.
+     */
+    public static double millisOf(long micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+    }
+
+    static long midpoint(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >> SUB_BUCKET_BITS) - 1;
+        long lower = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+}
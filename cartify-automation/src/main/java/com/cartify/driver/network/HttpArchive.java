@@ -0,0 +1,202 @@
+package com.cartify.driver.network;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * HttpArchive: Recorded browser responses keyed by request.
+ * Stored as one zip: index.json lists the entries and bodies/ holds each
+ * distinct body once, deflated and named by its SHA-1.
+ *
+ * The request key is the method and full URL, plus a hash of the body for
+ * requests that carry one, so API calls with different payloads do not collide.
+ */
+public class HttpArchive {
+
+    private static final String INDEX_ENTRY = "index.json";
+    private static final String BODY_DIR = "bodies/";
+    private static final Type INDEX_TYPE = new TypeToken<List<Map<String, Object>>>() {
+    }.getType();
+
+    private static volatile HttpArchive shared;
+
+    private final Path file;
+    private final Map<String, RecordedResponse> responses = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    HttpArchive(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * The archive for this run, from -Dcartify.network.archive
+     * (default recordings/cartify.zip); loaded from disk on first use.
+     */
+    public static HttpArchive shared() {
+        if (shared == null) {
+            synchronized (HttpArchive.class) {
+                if (shared == null) {
+                    HttpArchive archive = new HttpArchive(
+                            Paths.get(System.getProperty("cartify.network.archive", "recordings/cartify.zip")));
+                    if (Files.exists(archive.file)) {
+                        archive.load();
+                    }
+                    shared = archive;
+                }
+            }
+        }
+        return shared;
+    }
+
+    public static String key(HttpRequest request) {
+        String key = request.getMethod() + " " + request.getUri();
+        if (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD) {
+            byte[] body = Contents.bytes(request.getContent());
+            if (body.length > 0) {
+                key += " #" + sha1(body);
+            }
+        }
+        return key;
+    }
+
+    public RecordedResponse get(String key) {
+        return responses.get(key);
+    }
+
+    public void put(String key, RecordedResponse response) {
+        responses.put(key, response);
+        dirty = true;
+    }
+
+    public int size() {
+        return responses.size();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // ============================================
+    // Persistence
+    // ============================================
+
+    private void load() {
+        Map<String, byte[]> bodies = new HashMap<>();
+        List<Map<String, Object>> index = List.of();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(file))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                byte[] bytes = zip.readAllBytes();
+                if (INDEX_ENTRY.equals(entry.getName())) {
+                    index = new Json().toType(new String(bytes, StandardCharsets.UTF_8), INDEX_TYPE);
+                } else if (entry.getName().startsWith(BODY_DIR)) {
+                    bodies.put(entry.getName(), bytes);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read HTTP archive " + file, e);
+        }
+        for (Map<String, Object> item : index) {
+            Map<String, List<String>> headers = readHeaders(item.get("headers"));
+            byte[] body = bodies.getOrDefault(item.get("body"), new byte[0]);
+            responses.put((String) item.get("key"),
+                    new RecordedResponse(((Number) item.get("status")).intValue(), headers, body));
+        }
+        System.out.println("Loaded " + responses.size() + " recorded responses from " + file);
+    }
+
+    // Archives written before headers kept every value hold a single string per header
+    private static Map<String, List<String>> readHeaders(Object stored) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (stored instanceof Map) {
+            for (Map.Entry<?, ?> header : ((Map<?, ?>) stored).entrySet()) {
+                List<String> values = new ArrayList<>();
+                if (header.getValue() instanceof List) {
+                    ((List<?>) header.getValue()).forEach(value -> values.add(String.valueOf(value)));
+                } else if (header.getValue() != null) {
+                    values.add(String.valueOf(header.getValue()));
+                }
+                headers.put(String.valueOf(header.getKey()), values);
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Writes the archive to a temp file and moves it into place, so an interrupted
+     * run never leaves a truncated archive behind.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        List<Map<String, Object>> index = new ArrayList<>();
+        Set<String> writtenBodies = new HashSet<>();
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "archive", ".zip.tmp");
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(temp))) {
+                for (Map.Entry<String, RecordedResponse> recorded : responses.entrySet()) {
+                    RecordedResponse response = recorded.getValue();
+                    String bodyEntry = BODY_DIR + sha1(response.getBody());
+                    if (writtenBodies.add(bodyEntry)) {
+                        zip.putNextEntry(new ZipEntry(bodyEntry));
+                        zip.write(response.getBody());
+                        zip.closeEntry();
+                    }
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("key", recorded.getKey());
+                    item.put("status", response.getStatus());
+                    item.put("headers", response.getHeaders());
+                    item.put("body", bodyEntry);
+                    index.add(item);
+                }
+                zip.putNextEntry(new ZipEntry(INDEX_ENTRY));
+                zip.write(new Json().toJson(index).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write HTTP archive " + file, e);
+        }
+        System.out.println("Saved " + index.size() + " recorded responses (" + writtenBodies.size()
+                + " distinct bodies) to " + file);
+    }
+
+    static String sha1(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.cartify.driver.network;
+
+/**
+ * NetworkMode: How browser traffic is served, from -Dcartify.network.mode.
+ * LIVE goes to the network, RECORD goes to the network and captures every
+ * response into the HttpArchive, REPLAY serves responses from the archive.
+ */
+public enum NetworkMode {
+    LIVE, RECORD, REPLAY;
+
+    public static NetworkMode fromSystemProperty() {
+        return valueOf(System.getProperty("cartify.network.mode", "live").trim().toUpperCase());
+    }
+}
@@ -0,0 +1,18 @@
+package com.cartify.driver.network;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * NetworkProfile: Picks the ResourcePolicy for a test class or method,
+ * overriding -Dcartify.network.profile. Visual checks use @NetworkProfile("full").
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface NetworkProfile {
+
+    /** Profile name, see ResourcePolicy#named. */
+    String value();
+}
@@ -0,0 +1,80 @@
+package com.cartify.driver.network;
+
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RecordReplayFilter: Network interception filter backed by an HttpArchive.
+ * In RECORD mode responses pass through and are captured; in REPLAY mode
+ * they are served from the archive. A replay miss is reported to the
+ * session and either goes to the network or, with failOnMiss, gets a 504.
+ */
+class RecordReplayFilter implements Filter {
+
+    /** Transport headers that no longer describe the body once it has been decoded and buffered. */
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "content-length", "content-encoding", "transfer-encoding", "connection", "date");
+
+    private final NetworkMode mode;
+    private final HttpArchive archive;
+    private final boolean failOnMiss;
+    private final SessionNetwork session;
+
+    RecordReplayFilter(NetworkMode mode, HttpArchive archive, boolean failOnMiss, SessionNetwork session) {
+        this.mode = mode;
+        this.archive = archive;
+        this.failOnMiss = failOnMiss;
+        this.session = session;
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return request -> {
+            String key = HttpArchive.key(request);
+            if (mode == NetworkMode.REPLAY) {
+                RecordedResponse recorded = archive.get(key);
+                if (recorded != null) {
+                    return recorded.toHttpResponse();
+                }
+                session.recordCacheMiss(key);
+                if (failOnMiss) {
+                    return new HttpResponse()
+                            .setStatus(504)
+                            .addHeader("Content-Type", "text/plain")
+                            .setContent(Contents.utf8String("Not in HTTP archive: " + key));
+                }
+                return next.execute(request);
+            }
+
+            HttpResponse response = next.execute(request);
+            if (mode == NetworkMode.RECORD) {
+                byte[] body = Contents.bytes(response.getContent());
+                response.setContent(Contents.bytes(body));
+                archive.put(key, new RecordedResponse(response.getStatus(), replayableHeaders(response), body));
+            }
+            return response;
+        };
+    }
+
+    // Every value of a repeated header, e.g. several Set-Cookie or Vary lines, in order
+    private static Map<String, List<String>> replayableHeaders(HttpResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                List<String> values = new ArrayList<>();
+                response.getHeaders(name).forEach(values::add);
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
+}
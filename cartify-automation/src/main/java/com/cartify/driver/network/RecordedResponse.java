@@ -0,0 +1,47 @@
+package com.cartify.driver.network;
+
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecordedResponse: An archived HTTP response; status, replayable headers and body.
+ * A header keeps all its values, since headers such as Set-Cookie repeat.
+ */
+public final class RecordedResponse {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    public RecordedResponse(int status, Map<String, List<String>> headers, byte[] body) {
+        this.status = status;
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        headers.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+        this.headers = Collections.unmodifiableMap(copy);
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public HttpResponse toHttpResponse() {
+        HttpResponse response = new HttpResponse().setStatus(status);
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContent(Contents.bytes(body));
+        return response;
+    }
+}
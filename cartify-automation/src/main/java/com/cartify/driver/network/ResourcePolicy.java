@@ -0,0 +1,110 @@
+package com.cartify.driver.network;
+
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * ResourcePolicy: Decides which browser requests a test actually needs.
+ *
+ * Profiles:
+ * full - everything is fetched (visual checks)
+ * lean - analytics, trackers and web fonts are blocked, images are replaced by a 1x1 pixel
+ *
+ * Extra URL patterns (regular expressions, comma separated) can be blocked in
+ * any profile with -Dcartify.network.block.
+ */
+public final class ResourcePolicy {
+
+    public enum Action {
+        ALLOW, BLOCK, STUB_IMAGE
+    }
+
+    private static final List<String> ANALYTICS = List.of(
+            "google-analytics\\.com", "googletagmanager\\.com", "doubleclick\\.net", "connect\\.facebook\\.net",
+            "hotjar\\.com", "segment\\.(io|com)", "clarity\\.ms", "mixpanel\\.com");
+
+    private static final List<String> FONTS = List.of(
+            "fonts\\.googleapis\\.com", "fonts\\.gstatic\\.com", "\\.(woff2?|ttf|otf|eot)(\\?|$)");
+
+    private static final Pattern IMAGE_URL = Pattern.compile("\\.(png|jpe?g|gif|webp|avif|svg|ico)(\\?|$)",
+            Pattern.CASE_INSENSITIVE);
+
+    public static final ResourcePolicy FULL = new ResourcePolicy("full", List.of(), false);
+    public static final ResourcePolicy LEAN = new ResourcePolicy("lean", concat(ANALYTICS, FONTS), true);
+
+    private final String name;
+    private final List<Pattern> blocked;
+    private final boolean stubImages;
+
+    private ResourcePolicy(String name, List<String> blockedPatterns, boolean stubImages) {
+        this.name = name;
+        List<String> patterns = new ArrayList<>(blockedPatterns);
+        String extra = System.getProperty("cartify.network.block", "");
+        if (!extra.isBlank()) {
+            patterns.addAll(Arrays.asList(extra.split("\\s*,\\s*")));
+        }
+        this.blocked = patterns.stream().map(Pattern::compile).toList();
+        this.stubImages = stubImages;
+    }
+
+    public static ResourcePolicy named(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "full":
+                return FULL;
+            case "lean":
+                return LEAN;
+            default:
+                throw new IllegalArgumentException("Unknown network profile: " + name + " (expected full or lean)");
+        }
+    }
+
+    /**
+     * The run-wide default, from -Dcartify.network.profile (default full).
+     */
+    public static ResourcePolicy fromSystemProperty() {
+        return named(System.getProperty("cartify.network.profile", "full"));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * True when the policy never changes a request, so no interception is needed.
+     */
+    public boolean isPassThrough() {
+        return blocked.isEmpty() && !stubImages;
+    }
+
+    public Action decide(HttpRequest request) {
+        String url = request.getUri();
+        for (Pattern pattern : blocked) {
+            if (pattern.matcher(url).find()) {
+                return Action.BLOCK;
+            }
+        }
+        if (stubImages && isImage(request)) {
+            return Action.STUB_IMAGE;
+        }
+        return Action.ALLOW;
+    }
+
+    private static boolean isImage(HttpRequest request) {
+        if (request.getUri().startsWith("data:")) {
+            return false;
+        }
+        String accept = request.getHeader("Accept");
+        return IMAGE_URL.matcher(request.getUri()).find() || (accept != null && accept.startsWith("image/"));
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
@@ -0,0 +1,44 @@
+package com.cartify.driver.network;
+
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.Base64;
+
+/**
+ * ResourcePolicyFilter: Applies the session's current ResourcePolicy to each
+ * intercepted request. Blocked requests get an empty 204 and images a 1x1
+ * transparent GIF, so pages still load without waiting on them.
+ */
+class ResourcePolicyFilter implements Filter {
+
+    private static final byte[] PIXEL = Base64.getDecoder()
+            .decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+
+    private final SessionNetwork session;
+
+    ResourcePolicyFilter(SessionNetwork session) {
+        this.session = session;
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return request -> {
+            switch (session.getPolicy().decide(request)) {
+                case BLOCK:
+                    session.getTrafficStats().recordBlocked();
+                    return new HttpResponse().setStatus(204);
+                case STUB_IMAGE:
+                    session.getTrafficStats().recordStubbedImage();
+                    return new HttpResponse()
+                            .setStatus(200)
+                            .addHeader("Content-Type", "image/gif")
+                            .setContent(Contents.bytes(PIXEL));
+                default:
+                    return next.execute(request);
+            }
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package com.cartify.driver.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Filter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * SessionNetwork: Network interception for one pooled browser session.
+ * Installs a CDP Fetch interceptor only while the run or the current test needs
+ * one and keeps the per-lease traffic statistics the tests report on. Traffic is
+ * measured from DevTools Network events, which the browser pushes without a
+ * round trip per request, so they stay on whatever the policy.
+ *
+ * Settings (system properties):
+ * cartify.network.mode       - live, record or replay (see NetworkMode)
+ * cartify.network.archive    - archive file (see HttpArchive)
+ * cartify.network.failOnMiss - in replay, answer unrecorded requests with 504 instead of going live
+ * cartify.network.profile    - default resource policy, full or lean (see ResourcePolicy)
+ */
+public class SessionNetwork implements AutoCloseable {
+
+    private static final NetworkMode MODE = NetworkMode.fromSystemProperty();
+    private static final boolean FAIL_ON_MISS = Boolean.getBoolean("cartify.network.failOnMiss");
+
+    private static final ResourcePolicy DEFAULT_POLICY = ResourcePolicy.fromSystemProperty();
+
+    private final WebDriver driver;
+    private final List<String> cacheMisses = new CopyOnWriteArrayList<>();
+    private final TrafficStats trafficStats = new TrafficStats();
+    // DevTools request id -> when it was sent, in seconds of the browser's monotonic clock
+    private final Map<String, Double> requestStarts = new ConcurrentHashMap<>();
+    private volatile ResourcePolicy policy = DEFAULT_POLICY;
+    private NetworkInterceptor interceptor;
+
+    public SessionNetwork(WebDriver driver) {
+        this.driver = driver;
+        if (MODE != NetworkMode.LIVE && !(driver instanceof HasDevTools)) {
+            throw new IllegalStateException("Network mode " + MODE + " needs a browser with DevTools support");
+        }
+        listenToTraffic();
+        updateInterceptor();
+    }
+
+    public static NetworkMode getMode() {
+        return MODE;
+    }
+
+    public static boolean isFailOnMiss() {
+        return FAIL_ON_MISS;
+    }
+
+    /**
+     * Clears the per-lease statistics; called when the session is leased to a new test.
+     */
+    public void startLease() {
+        cacheMisses.clear();
+        requestStarts.clear();
+        trafficStats.reset();
+        usePolicy(DEFAULT_POLICY);
+    }
+
+    /**
+     * Switches the resource policy for the rest of the current lease.
+     */
+    public synchronized void usePolicy(ResourcePolicy policy) {
+        this.policy = policy;
+        updateInterceptor();
+    }
+
+    public ResourcePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * What the resource policy blocked or stubbed during the current lease.
+     */
+    public TrafficStats getTrafficStats() {
+        return trafficStats;
+    }
+
+    void recordCacheMiss(String key) {
+        cacheMisses.add(key);
+    }
+
+    /**
+     * Requests the replay archive could not answer during the current lease.
+     */
+    public List<String> getCacheMisses() {
+        return List.copyOf(cacheMisses);
+    }
+
+    // ============================================
+    // Traffic (DevTools Network events)
+    // ============================================
+
+    private void listenToTraffic() {
+        if (!(driver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(event("Network.requestWillBeSent"), this::onRequestSent);
+            devTools.addListener(event("Network.loadingFinished"), this::onLoadingFinished);
+            devTools.addListener(event("Network.loadingFailed"),
+                    params -> requestStarts.remove(String.valueOf(params.get("requestId"))));
+            devTools.send(new Command<Void>("Network.enable", Map.of()));
+        } catch (RuntimeException e) {
+            System.out.println("Browser traffic not measured: " + e.getMessage());
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    // A redirect is sent again under the same id; its time counts from the first send
+    private void onRequestSent(Map<String, Object> params) {
+        if (params.get("timestamp") instanceof Number) {
+            requestStarts.putIfAbsent(String.valueOf(params.get("requestId")),
+                    ((Number) params.get("timestamp")).doubleValue());
+        }
+    }
+
+    private void onLoadingFinished(Map<String, Object> params) {
+        Double start = requestStarts.remove(String.valueOf(params.get("requestId")));
+        Object end = params.get("timestamp");
+        Object bytes = params.get("encodedDataLength");
+        trafficStats.recordLoaded(bytes instanceof Number ? ((Number) bytes).longValue() : 0,
+                start != null && end instanceof Number
+                        ? Math.round((((Number) end).doubleValue() - start) * 1000) : 0);
+    }
+
+    // ============================================
+    // Interception
+    // ============================================
+
+    // Every intercepted request costs a DevTools round trip, so the interceptor
+    // is only kept while recording, replaying or applying a restrictive policy
+    private synchronized void updateInterceptor() {
+        boolean needed = MODE != NetworkMode.LIVE || !policy.isPassThrough();
+        if (needed && interceptor == null) {
+            if (!(driver instanceof HasDevTools)) {
+                System.out.println("Resource policy '" + policy.getName() + "' ignored: browser has no DevTools support");
+                return;
+            }
+            Filter filter = new ResourcePolicyFilter(this);
+            if (MODE != NetworkMode.LIVE) {
+                filter = filter.andThen(new RecordReplayFilter(MODE, HttpArchive.shared(), FAIL_ON_MISS, this));
+            }
+            interceptor = new NetworkInterceptor(driver, filter);
+        } else if (!needed) {
+            close();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (interceptor != null) {
+            interceptor.close();
+            interceptor = null;
+        }
+    }
+
+    /**
+     * Persists what RECORD mode captured; called once the pool shuts down.
+     */
+    public static void saveRecording() {
+        if (MODE == NetworkMode.RECORD) {
+            HttpArchive.shared().save();
+        }
+    }
+}
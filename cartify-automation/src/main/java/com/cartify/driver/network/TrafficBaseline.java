@@ -0,0 +1,129 @@
+package com.cartify.driver.network;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * TrafficBaseline: What each test transferred the last time it ran with nothing
+ * blocked (the full profile), so a run with a restrictive profile can report
+ * what it actually saved. Kept across runs in a JSON file; a test that has
+ * never run with the full profile has no baseline and reports none.
+ *
+ * Settings (system properties):
+ * cartify.network.baseline - baseline file (default .cartify/traffic-baseline.json)
+ */
+public final class TrafficBaseline {
+
+    private static final Type FILE_TYPE = new TypeToken<Map<String, Map<String, Object>>>() {
+    }.getType();
+
+    private static volatile TrafficBaseline shared;
+
+    private final Path file;
+    // class#method -> {"requests": count, "bytes": encoded bytes, "ms": summed request time}
+    private final Map<String, Map<String, Object>> tests = new TreeMap<>();
+    private final Set<String> updated = new HashSet<>();
+
+    TrafficBaseline(Path file) {
+        this.file = file;
+        tests.putAll(read());
+    }
+
+    public static TrafficBaseline shared() {
+        if (shared == null) {
+            synchronized (TrafficBaseline.class) {
+                if (shared == null) {
+                    shared = new TrafficBaseline(Paths.get(
+                            System.getProperty("cartify.network.baseline", ".cartify/traffic-baseline.json")));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Saves the baselines recorded by this run; called once the pool shuts down.
+     */
+    public static void saveShared() {
+        if (shared != null) {
+            shared.save();
+        }
+    }
+
+    public static String key(String className, String testName) {
+        return className + "#" + testName;
+    }
+
+    public synchronized void record(String key, TrafficStats stats) {
+        Map<String, Object> test = new LinkedHashMap<>();
+        test.put("requests", stats.getRequests());
+        test.put("bytes", stats.getBytesTransferred());
+        test.put("ms", stats.getRequestMillis());
+        tests.put(key, test);
+        updated.add(key);
+    }
+
+    /**
+     * How the lease's traffic compares with the test's full-profile baseline.
+     */
+    public synchronized String compare(String key, TrafficStats stats) {
+        Map<String, Object> test = tests.get(key);
+        if (test == null) {
+            return "no full-profile baseline yet, run the test once with -Dcartify.network.profile=full";
+        }
+        long bytes = ((Number) test.get("bytes")).longValue();
+        long millis = ((Number) test.get("ms")).longValue();
+        return "full profile: " + ((Number) test.get("requests")).longValue() + " requests, "
+                + bytes / 1024 + " KB, " + millis + " ms; saved "
+                + (bytes - stats.getBytesTransferred()) / 1024 + " KB and "
+                + (millis - stats.getRequestMillis()) + " ms of request time";
+    }
+
+    // Re-read before writing, so JVMs running in parallel keep each other's baselines
+    public synchronized void save() {
+        if (updated.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Object>> content = new TreeMap<>(read());
+        for (String key : updated) {
+            content.put(key, tests.get(key));
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "traffic-baseline", ".tmp");
+            Files.writeString(temp, new Json().toJson(content), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            updated.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write traffic baseline " + file, e);
+        }
+    }
+
+    private Map<String, Map<String, Object>> read() {
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        try {
+            Map<String, Map<String, Object>> content = new Json().toType(
+                    Files.readString(file, StandardCharsets.UTF_8), FILE_TYPE);
+            return content != null ? content : Map.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read traffic baseline " + file, e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.cartify.driver.network;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TrafficStats: What the browser transferred during one lease, and what the
+ * resource policy blocked or stubbed. Requests, bytes and time are measured by
+ * the browser (DevTools Network events): bytes are the encoded sizes as received
+ * and time is the sum of each request's time from being sent to finishing
+ * loading. TrafficBaseline compares them with the same test under the full profile.
+ */
+public final class TrafficStats {
+
+    private final AtomicInteger blocked = new AtomicInteger();
+    private final AtomicInteger stubbedImages = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicLong bytesTransferred = new AtomicLong();
+    private final AtomicLong requestMillis = new AtomicLong();
+
+    void recordBlocked() {
+        blocked.incrementAndGet();
+    }
+
+    void recordStubbedImage() {
+        stubbedImages.incrementAndGet();
+    }
+
+    void recordLoaded(long bytes, long millis) {
+        requests.incrementAndGet();
+        bytesTransferred.addAndGet(bytes);
+        requestMillis.addAndGet(millis);
+    }
+
+    void reset() {
+        blocked.set(0);
+        stubbedImages.set(0);
+        requests.set(0);
+        bytesTransferred.set(0);
+        requestMillis.set(0);
+    }
+
+    public int getBlocked() {
+        return blocked.get();
+    }
+
+    public int getStubbedImages() {
+        return stubbedImages.get();
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public long getBytesTransferred() {
+        return bytesTransferred.get();
+    }
+
+    public long getRequestMillis() {
+        return requestMillis.get();
+    }
+
+    /**
+     * True when nothing was measured, e.g. on a browser without DevTools.
+     */
+    public boolean isEmpty() {
+        return requests.get() == 0 && blocked.get() == 0 && stubbedImages.get() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return blocked.get() + " requests blocked, " + stubbedImages.get() + " images stubbed, "
+                + requests.get() + " requests loaded, " + bytesTransferred.get() / 1024 + " KB and "
+                + requestMillis.get() + " ms of request time";
+    }
+}
@@ -1,50 +1,95 @@
 package com.cartify.pages;
 
+import com.cartify.pages.support.DomWaits;
+import com.cartify.pages.support.ElementCache;
+import com.cartify.pages.support.FormFiller;
+import com.cartify.pages.support.Locators;
+import com.cartify.pages.support.PageSnapshot;
+import com.cartify.pages.support.PageStability;
+import com.cartify.pages.support.StabilityResult;
+import com.cartify.reporting.ScreenshotService;
+import com.cartify.reporting.Step;
+import com.cartify.reporting.StepTimeline;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import org.apache.commons.io.FileUtils;
 
-import java.io.File;
-import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * BasePage: Unified Base Page for all Page Objects.
- * Supports both By locators and PageFactory WebElements.
+ * Supports both By locators (plain or generated from @FindBy) and WebElements.
+ *
+ * Sessions run with a zero implicit wait: every wait is explicit, either a
+ * WebDriverWait or a probe budget, so the two never stack up.
  */
 public abstract class BasePage {
 
+    private static final Duration PROBE_POLLING = Duration.ofMillis(100);
+    private static final Duration SCROLL_SETTLE_CAP = Duration.ofSeconds(2);
+
+    /**
+     * cartify.wait.backend=observer switches the By-locator waits to in-page
+     * MutationObserver waits (DomWaits); the default is WebDriverWait polling.
+     */
+    private static final boolean OBSERVER_WAITS = "observer"
+            .equalsIgnoreCase(System.getProperty("cartify.wait.backend", "polling"));
+
     protected WebDriver driver;
     protected WebDriverWait wait;
+    protected Duration timeout;
     protected String url;
+    private DomWaits domWaits;
+    private ElementCache elementCache;
 
     /**
      * Constructor for pages using By locators (from auto module)
      */
     public BasePage(WebDriver webdriver, int seconds, String url) {
         this.driver = webdriver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(seconds));
+        this.timeout = Duration.ofSeconds(seconds);
+        this.wait = new WebDriverWait(driver, timeout);
         this.url = url;
     }
 
     /**
-     * Constructor for pages using PageFactory (from cartify-automation module)
+     * Constructor for pages using generated @FindBy locators (from cartify-automation module)
      */
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+        this.timeout = Duration.ofSeconds(20);
+        this.wait = new WebDriverWait(driver, timeout);
         this.url = "";
     }
 
     protected void open() {
         if (this.url != null && !this.url.isEmpty()) {
-            driver.get(this.url);
+            try (Step ignored = step("open")) {
+                driver.get(this.url);
+            }
+            if (elementCache != null) {
+                elementCache.clear();
+            }
         }
     }
 
+    /**
+     * Opens a timed step named after this page, e.g. step("login") in LoginPage
+     * is reported as LoginPage.login. Close it with try-with-resources.
+     */
+    protected Step step(String action) {
+        return StepTimeline.begin(getClass().getSimpleName() + "." + action);
+    }
+
     /**
      * Optional: Override in child pages to verify page load.
      */
@@ -53,7 +98,7 @@ public abstract class BasePage {
     }
 
     // ============================================
-    // Methods for WebElements (PageFactory)
+    // Methods for WebElements
     // ============================================
 
     protected void click(WebElement element) {
@@ -79,12 +124,23 @@ public abstract class BasePage {
         }
     }
 
+    protected boolean isDisplayed(WebElement element, Duration budget) {
+        try {
+            return newProbeWait(budget).until(d -> isDisplayed(element));
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
     // ============================================
     // Methods for By Locators
     // ============================================
 
     protected WebElement waitForElementToBeVisible(By locator) {
         try {
+            if (useDomWaits(locator)) {
+                return domWaits().visible(locator);
+            }
             return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
         } catch (TimeoutException e) {
             throw new RuntimeException("Element not visible after waiting: " + locator.toString(), e);
@@ -93,6 +149,9 @@ public abstract class BasePage {
 
     protected WebElement waitForElementToBeClickable(By locator) {
         try {
+            if (useDomWaits(locator)) {
+                return domWaits().clickable(locator);
+            }
             return wait.until(ExpectedConditions.elementToBeClickable(locator));
         } catch (TimeoutException e) {
             throw new RuntimeException("Element not clickable after waiting: " + locator.toString(), e);
@@ -101,6 +160,9 @@ public abstract class BasePage {
 
     protected boolean waitForElementToDisappear(By locator) {
         try {
+            if (useDomWaits(locator)) {
+                return domWaits().invisible(locator);
+            }
             return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
         } catch (TimeoutException e) {
             return false;
@@ -109,6 +171,9 @@ public abstract class BasePage {
 
     protected boolean waitForTextToBePresentInElement(By locator, String text) {
         try {
+            if (useDomWaits(locator)) {
+                return domWaits().textPresent(locator, text);
+            }
             return wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
         } catch (TimeoutException e) {
             return false;
@@ -117,15 +182,75 @@ public abstract class BasePage {
 
     public boolean waitForUrlToContain(String fraction) {
         try {
+            if (OBSERVER_WAITS) {
+                return domWaits().urlContains(fraction);
+            }
             return wait.until(ExpectedConditions.urlContains(fraction));
         } catch (TimeoutException e) {
             return false;
         }
     }
 
+    private boolean useDomWaits(By locator) {
+        return OBSERVER_WAITS && Locators.isSupported(locator);
+    }
+
+    private DomWaits domWaits() {
+        if (domWaits == null) {
+            domWaits = new DomWaits(driver, timeout);
+        }
+        return domWaits;
+    }
+
+    // ============================================
+    // Element Cache (opt-in)
+    // ============================================
+
+    /**
+     * Opts this page object into caching the elements its By helpers find (see
+     * ElementCache); call from the page's constructor. A hit is used only when one
+     * script call shows the handle is still attached, the DOM structure has not
+     * changed since it was cached, and the element is visible (and enabled, for
+     * clicks); otherwise the helper does its normal wait and find.
+     */
+    protected void enableElementCache() {
+        elementCache = new ElementCache(driver);
+    }
+
+    /**
+     * Hit and miss counters of this page's element cache, or null when it is not enabled.
+     */
+    public ElementCache getElementCache() {
+        return elementCache;
+    }
+
+    // Runs the action on the cached handle when it is current and ready, otherwise (or when
+    // the handle turns out stale or not interactable) on an element found by the helper's wait
+    private <T> T withElement(By locator, boolean clickable, Function<WebElement, T> action) {
+        if (elementCache != null) {
+            ElementCache.Hit hit = elementCache.get(locator,
+                    cached -> cached.isVisible() && (!clickable || cached.isEnabled()));
+            if (hit != null) {
+                try {
+                    return action.apply(hit.getElement());
+                } catch (StaleElementReferenceException | ElementNotInteractableException e) {
+                    elementCache.evictStale(locator);
+                }
+            }
+        }
+        WebElement element = clickable ? waitForElementToBeClickable(locator) : waitForElementToBeVisible(locator);
+        if (elementCache != null) {
+            elementCache.put(locator, element);
+        }
+        return action.apply(element);
+    }
+
     protected void click(By locator) {
         try {
-            waitForElementToBeClickable(locator).click();
+            withElement(locator, true, element -> {
+                element.click();
+                return null;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Failed to click on element: " + locator.toString(), e);
         }
@@ -133,9 +258,8 @@ public abstract class BasePage {
 
     protected void clickWithJS(By locator) {
         try {
-            WebElement element = waitForElementToBeVisible(locator);
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript("arguments[0].click();", element);
+            withElement(locator, false,
+                    element -> ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element));
         } catch (Exception e) {
             throw new RuntimeException("Failed to click with JS: " + locator.toString(), e);
         }
@@ -153,8 +277,10 @@ public abstract class BasePage {
 
     protected void sendKeys(By locator, String text) {
         try {
-            WebElement element = waitForElementToBeVisible(locator);
-            element.sendKeys(text);
+            withElement(locator, false, element -> {
+                element.sendKeys(text);
+                return null;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Failed to send keys to: " + locator.toString(), e);
         }
@@ -162,33 +288,138 @@ public abstract class BasePage {
 
     protected void clearAndSendKeys(By locator, String text) {
         try {
-            WebElement element = waitForElementToBeVisible(locator);
-            element.clear();
-            element.sendKeys(text);
+            withElement(locator, false, element -> {
+                element.clear();
+                element.sendKeys(text);
+                return null;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Failed to clear and send keys: " + locator.toString(), e);
         }
     }
 
     protected boolean isElementDisplayed(By locator) {
+        return checkFirstMatch(locator, WebElement::isDisplayed, ElementCache.Hit::isVisible);
+    }
+
+    protected boolean isElementDisplayed(By locator, Duration budget) {
         try {
-            return driver.findElement(locator).isDisplayed();
-        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            return newProbeWait(budget).until(d -> isElementDisplayed(locator));
+        } catch (TimeoutException e) {
             return false;
         }
     }
 
     protected boolean isElementEnabled(By locator) {
+        return checkFirstMatch(locator, WebElement::isEnabled, ElementCache.Hit::isEnabled);
+    }
+
+    // Zero-wait check of the first match; an absent element is false and is not cached.
+    // A cache hit answers from the state its check already read.
+    private boolean checkFirstMatch(By locator, Function<WebElement, Boolean> check,
+                                    Predicate<ElementCache.Hit> cachedCheck) {
+        if (elementCache != null) {
+            ElementCache.Hit hit = elementCache.get(locator, cached -> true);
+            if (hit != null) {
+                return cachedCheck.test(hit);
+            }
+        }
+        try {
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                return false;
+            }
+            if (elementCache != null) {
+                elementCache.put(locator, elements.get(0));
+            }
+            return check.apply(elements.get(0));
+        } catch (StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    // ============================================
+    // Presence Probes
+    // findElements returns at once under a zero implicit wait, so an absent
+    // element costs one round trip; any waiting is the budget passed in.
+    // ============================================
+
+    protected boolean isElementPresent(By locator) {
+        return !driver.findElements(locator).isEmpty();
+    }
+
+    protected boolean isElementPresent(By locator, Duration budget) {
+        return probe(locator, budget).isPresent();
+    }
+
+    protected boolean isElementAbsent(By locator, Duration budget) {
         try {
-            return driver.findElement(locator).isEnabled();
-        } catch (NoSuchElementException e) {
+            return newProbeWait(budget).until(d -> d.findElements(locator).isEmpty());
+        } catch (TimeoutException e) {
             return false;
         }
     }
 
+    /**
+     * Returns the first element matching the locator, polling for at most the budget.
+     */
+    protected Optional<WebElement> probe(By locator, Duration budget) {
+        List<WebElement> elements = driver.findElements(locator);
+        if (!elements.isEmpty() || budget.isZero()) {
+            return elements.stream().findFirst();
+        }
+        try {
+            return Optional.of(newProbeWait(budget).until(d -> {
+                List<WebElement> found = d.findElements(locator);
+                return found.isEmpty() ? null : found.get(0);
+            }));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Waits for whichever locator matches first, e.g. a list or its empty-state message.
+     *
+     * @return the matching locator, or null if none appeared within the budget
+     */
+    protected By waitForFirstPresent(Duration budget, By... locators) {
+        try {
+            return newProbeWait(budget).until(d -> {
+                for (By locator : locators) {
+                    if (!d.findElements(locator).isEmpty()) {
+                        return locator;
+                    }
+                }
+                return null;
+            });
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs an action with an implicit wait, restoring the zero default afterwards.
+     * Only for legacy code that relies on findElement waiting; prefer probes.
+     */
+    protected <T> T withImplicitWait(Duration implicitWait, Supplier<T> action) {
+        driver.manage().timeouts().implicitlyWait(implicitWait);
+        try {
+            return action.get();
+        } finally {
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        }
+    }
+
+    private WebDriverWait newProbeWait(Duration budget) {
+        WebDriverWait probeWait = new WebDriverWait(driver, budget, PROBE_POLLING);
+        probeWait.ignoring(StaleElementReferenceException.class);
+        return probeWait;
+    }
+
     protected String getElementText(By locator) {
         try {
-            return waitForElementToBeVisible(locator).getText();
+            return withElement(locator, false, WebElement::getText);
         } catch (Exception e) {
             throw new RuntimeException("Failed to get text from: " + locator.toString(), e);
         }
@@ -196,7 +427,8 @@ public abstract class BasePage {
 
     protected String getElementAttribute(By locator, String attribute) {
         try {
-            return waitForElementToBeVisible(locator).getAttribute(attribute);
+            return withElement(locator, false,
+                    element -> element.getAttribute(attribute));
         } catch (Exception e) {
             throw new RuntimeException("Failed to get attribute: " + locator.toString(), e);
         }
@@ -212,10 +444,12 @@ public abstract class BasePage {
 
     protected void scrollToElement(By locator) {
         try {
-            WebElement element = driver.findElement(locator);
+            WebElement element = probe(locator, timeout)
+                    .orElseThrow(() -> new NoSuchElementException("No element to scroll to: " + locator));
             JavascriptExecutor js = (JavascriptExecutor) driver;
             js.executeScript("arguments[0].scrollIntoView(true);", element);
-            Thread.sleep(500);
+            // Lets smooth scrolling and scroll-triggered lazy loading finish
+            waitForPageToSettle(PageStability.DEFAULT_QUIET_WINDOW, SCROLL_SETTLE_CAP);
         } catch (Exception e) {
             throw new RuntimeException("Failed to scroll to element: " + locator.toString(), e);
         }
@@ -233,9 +467,10 @@ public abstract class BasePage {
 
     protected void selectByVisibleText(By locator, String text) {
         try {
-            WebElement element = waitForElementToBeVisible(locator);
-            Select select = new Select(element);
-            select.selectByVisibleText(text);
+            withElement(locator, false, element -> {
+                new Select(element).selectByVisibleText(text);
+                return null;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Failed to select by text: " + locator.toString(), e);
         }
@@ -243,9 +478,10 @@ public abstract class BasePage {
 
     protected void selectByValue(By locator, String value) {
         try {
-            WebElement element = waitForElementToBeVisible(locator);
-            Select select = new Select(element);
-            select.selectByValue(value);
+            withElement(locator, false, element -> {
+                new Select(element).selectByValue(value);
+                return null;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Failed to select by value: " + locator.toString(), e);
         }
@@ -253,25 +489,85 @@ public abstract class BasePage {
 
     protected void selectByIndex(By locator, int index) {
         try {
-            WebElement element = waitForElementToBeVisible(locator);
-            Select select = new Select(element);
-            select.selectByIndex(index);
+            withElement(locator, false, element -> {
+                new Select(element).selectByIndex(index);
+                return null;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Failed to select by index: " + locator.toString(), e);
         }
     }
 
-    protected void takeScreenshot(String fileName) {
+    // ============================================
+    // Page Snapshots
+    // ============================================
+
+    /**
+     * Reads text, visibility and enabled state of all the locators (plus the
+     * given attributes) in one script call; see PageSnapshot.
+     */
+    protected PageSnapshot captureSnapshot(Map<String, By> locators, String... attributes) {
         try {
-            TakesScreenshot screenshot = (TakesScreenshot) driver;
-            File srcFile = screenshot.getScreenshotAs(OutputType.FILE);
-            File destFile = new File("screenshots/" + fileName + ".png");
-            FileUtils.copyFile(srcFile, destFile);
-        } catch (IOException e) {
+            return PageSnapshot.capture(driver, locators, Arrays.asList(attributes));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to snapshot: " + locators.keySet(), e);
+        }
+    }
+
+    // ============================================
+    // Form Filling
+    // ============================================
+
+    /**
+     * Sets all fields in one script call instead of a wait, clear and sendKeys per field,
+     * falling back to keystrokes for any field the script could not set (see FormFiller).
+     * Pass a LinkedHashMap when the fill order matters.
+     */
+    protected void fillForm(Map<By, String> values) {
+        try {
+            new FormFiller(driver, wait).fill(values);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fill form: " + values.keySet(), e);
+        }
+    }
+
+    /**
+     * fillForm for already located WebElements.
+     */
+    protected void fillFormElements(Map<WebElement, String> values) {
+        try {
+            new FormFiller(driver, wait).fill(values);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fill form: " + values.keySet(), e);
+        }
+    }
+
+    /**
+     * Saves a screenshot in the background (see ScreenshotService) and returns where it will be.
+     */
+    protected Path takeScreenshot(String fileName) {
+        try {
+            return ScreenshotService.getInstance().captureAs(driver, fileName);
+        } catch (WebDriverException e) {
             throw new RuntimeException("Failed to take screenshot: " + fileName, e);
         }
     }
 
+    // ============================================
+    // Page Stability
+    // ============================================
+
+    /**
+     * Waits until the page is idle (network, animations, DOM) instead of sleeping.
+     */
+    public StabilityResult waitForPageToSettle() {
+        return new PageStability(driver).waitForStable();
+    }
+
+    public StabilityResult waitForPageToSettle(Duration quietWindow, Duration cap) {
+        return new PageStability(driver).waitForStable(quietWindow, cap);
+    }
+
     protected String getPageTitle() {
         return driver.getTitle();
     }
@@ -1,7 +1,14 @@
 package com.cartify.pages;
 
+import com.cartify.pages.components.ElementCollection;
+import com.cartify.reporting.Step;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * CartPage: Represents the Cart Page.
@@ -30,6 +37,12 @@ public class CartPage extends BasePage {
     // Cart items
     private By cartItems = By.cssSelector(".cart-item");
     private By deleteItemBtn = By.cssSelector(".delete-item");
+    private By itemName = By.cssSelector(".product-name");
+    private By itemQuantity = By.cssSelector(".quantity");
+    private By itemPrice = By.cssSelector(".line-price");
+
+    // Cart rows keyed by product name
+    private final ElementCollection items;
 
     /**
      * Constructor
@@ -40,6 +53,10 @@ public class CartPage extends BasePage {
      */
     public CartPage(WebDriver driver, String url, int seconds) {
         super(driver, seconds, url);
+        enableElementCache();
+        this.items = new ElementCollection(driver, cartItems, itemName)
+                .withField("quantity", itemQuantity)
+                .withField("price", itemPrice);
     }
 
     // ============================================
@@ -60,6 +77,27 @@ public class CartPage extends BasePage {
         open();
     }
 
+    /**
+     * Reads the whole cart (buttons, counts and totals) in one call.
+     * Take it after isPageLoaded(), and again after changing the cart.
+     */
+    public CartSnapshot snapshot() {
+        Map<String, By> locators = new LinkedHashMap<>();
+        locators.put(CartSnapshot.TITLE, cartTitle);
+        locators.put(CartSnapshot.CONTAINER, cartContainer);
+        locators.put(CartSnapshot.ITEM_COUNT, cartCountText);
+        locators.put(CartSnapshot.ITEMS, cartItems);
+        locators.put(CartSnapshot.EMPTY_MESSAGE, emptyCartMessage);
+        locators.put(CartSnapshot.CHECKOUT, checkoutBtn);
+        locators.put(CartSnapshot.CONTINUE_SHOPPING, continueShoppingBtn);
+        locators.put(CartSnapshot.DELETE, deleteItemBtn);
+        locators.put(CartSnapshot.SUBTOTAL, subtotalElement);
+        locators.put(CartSnapshot.SHIPPING, shippingElement);
+        locators.put(CartSnapshot.TAX, taxElement);
+        locators.put(CartSnapshot.TOTAL, totalElement);
+        return new CartSnapshot(captureSnapshot(locators));
+    }
+
     // ============================================
     // Cart Item Methods
     // ============================================
@@ -73,11 +111,35 @@ public class CartPage extends BasePage {
     }
 
     public int getActualCartItemsCount() {
-        return getElements(cartItems).size();
+        return items.size();
+    }
+
+    /**
+     * Name, quantity and line price of every item, read a window at a time.
+     */
+    public List<ElementCollection.Row> getCartItems() {
+        return items.rows();
+    }
+
+    public void removeItem(String productName) {
+        try (Step ignored = step("removeItem")) {
+            WebElement deleteButton = items.action(productName, deleteItemBtn)
+                    .orElseThrow(() -> new RuntimeException("Product " + productName + " not found in cart"));
+            click(deleteButton);
+        }
+    }
+
+    /**
+     * Waits until the cart shows either its items or the empty message.
+     */
+    public boolean isCartRendered() {
+        return waitForFirstPresent(timeout, emptyCartMessage, cartItems) != null;
     }
 
     public boolean isCartEmpty() {
-        return isElementDisplayed(emptyCartMessage);
+        // The cart renders either its items or the empty message; wait for whichever comes first
+        return emptyCartMessage.equals(waitForFirstPresent(timeout, emptyCartMessage, cartItems))
+                && isElementDisplayed(emptyCartMessage);
     }
 
     public String getEmptyCartMessage() {
@@ -109,7 +171,9 @@ public class CartPage extends BasePage {
     // ============================================
 
     public void clickProceedToCheckout() {
-        click(checkoutBtn);
+        try (Step ignored = step("clickProceedToCheckout")) {
+            click(checkoutBtn);
+        }
     }
 
     public void clickContinueShopping() {
@@ -0,0 +1,100 @@
+package com.cartify.pages;
+
+import com.cartify.pages.support.PageSnapshot;
+
+/**
+ * CartSnapshot: The cart page as read by one CartPage.snapshot() call.
+ */
+public final class CartSnapshot {
+
+    static final String TITLE = "title";
+    static final String CONTAINER = "container";
+    static final String ITEM_COUNT = "itemCount";
+    static final String ITEMS = "items";
+    static final String EMPTY_MESSAGE = "emptyMessage";
+    static final String CHECKOUT = "checkout";
+    static final String CONTINUE_SHOPPING = "continueShopping";
+    static final String DELETE = "delete";
+    static final String SUBTOTAL = "subtotal";
+    static final String SHIPPING = "shipping";
+    static final String TAX = "tax";
+    static final String TOTAL = "total";
+
+    private final PageSnapshot snapshot;
+
+    CartSnapshot(PageSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public boolean isTitleDisplayed() {
+        return snapshot.get(TITLE).isDisplayed();
+    }
+
+    public boolean isCartContainerDisplayed() {
+        return snapshot.get(CONTAINER).isDisplayed();
+    }
+
+    public boolean isCheckoutButtonVisible() {
+        return snapshot.get(CHECKOUT).isDisplayed();
+    }
+
+    public boolean isCheckoutButtonEnabled() {
+        return snapshot.get(CHECKOUT).isEnabled();
+    }
+
+    public boolean isContinueShoppingButtonVisible() {
+        return snapshot.get(CONTINUE_SHOPPING).isDisplayed();
+    }
+
+    public boolean isDeleteButtonVisible() {
+        return snapshot.get(DELETE).isDisplayed();
+    }
+
+    public boolean isCartEmpty() {
+        return snapshot.get(EMPTY_MESSAGE).isDisplayed();
+    }
+
+    public String getEmptyCartMessage() {
+        return snapshot.get(EMPTY_MESSAGE).getText();
+    }
+
+    /**
+     * The count the page displays, e.g. "3 items"; 0 for an empty cart.
+     */
+    public int getDisplayedItemCount() {
+        String digits = snapshot.get(ITEM_COUNT).getText().replaceAll("[^0-9]", "");
+        return isCartEmpty() || digits.isEmpty() ? 0 : Integer.parseInt(digits);
+    }
+
+    /**
+     * Number of item rows actually rendered.
+     */
+    public int getActualItemCount() {
+        return snapshot.get(ITEMS).getCount();
+    }
+
+    public String getSubtotal() {
+        return snapshot.get(SUBTOTAL).getText();
+    }
+
+    public String getShipping() {
+        return snapshot.get(SHIPPING).getText();
+    }
+
+    public String getTax() {
+        return snapshot.get(TAX).getText();
+    }
+
+    public String getTotal() {
+        return snapshot.get(TOTAL).getText();
+    }
+
+    public PageSnapshot getPageSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot.toString();
+    }
+}
@@ -1,8 +1,13 @@
 package com.cartify.pages;
 
+import com.cartify.reporting.Step;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * CheckoutPage: Represents the Checkout Page.
  * Migrated from auto module.
@@ -49,17 +54,41 @@ public class CheckoutPage extends BasePage {
 
     public CheckoutPage(WebDriver driver, String url, int seconds) {
         super(driver, seconds, url);
+        // The form fields stay rendered, so repeated fills and checks reuse their handles
+        enableElementCache();
     }
 
     @Override
     public boolean isPageLoaded() {
-        return isElementDisplayed(checkoutForm);
+        return isElementDisplayed(checkoutForm, timeout);
     }
 
     public void openCheckoutPage() {
         open();
     }
 
+    /**
+     * Reads the form values, payment sections and messages in one call.
+     */
+    public CheckoutSnapshot snapshot() {
+        Map<String, By> locators = new LinkedHashMap<>();
+        locators.put(CheckoutSnapshot.FORM, checkoutForm);
+        locators.put(CheckoutSnapshot.PAGE_TITLE, pageTitle);
+        locators.put(CheckoutSnapshot.FULL_NAME, fullNameField);
+        locators.put(CheckoutSnapshot.EMAIL, emailField);
+        locators.put(CheckoutSnapshot.PHONE, phoneField);
+        locators.put(CheckoutSnapshot.MOBILE, mobileField);
+        locators.put(CheckoutSnapshot.ZIP_CODE, zipCodeField);
+        locators.put(CheckoutSnapshot.ADDRESS, addressField);
+        locators.put(CheckoutSnapshot.GENDER, genderDropdown);
+        locators.put(CheckoutSnapshot.PAYMENT, paymentMethodDropdown);
+        locators.put(CheckoutSnapshot.CARD_INFO, cardInfoSection);
+        locators.put(CheckoutSnapshot.PAYPAL, paypalSection);
+        locators.put(CheckoutSnapshot.SUCCESS, successNotification);
+        locators.put(CheckoutSnapshot.VALIDATION, validationMessage);
+        return new CheckoutSnapshot(captureSnapshot(locators, "value"));
+    }
+
     // ============================================
     // Form Filling Methods - Shipping Info
     // ============================================
@@ -102,13 +131,17 @@ public class CheckoutPage extends BasePage {
 
     public void fillBasicCheckoutInfo(String fullName, String email, String phone,
             String mobile, String zipCode, String address, String gender) {
-        fillFullName(fullName);
-        fillEmail(email);
-        fillPhone(phone);
-        fillMobile(mobile);
-        fillZipCode(zipCode);
-        fillAddress(address);
-        selectGender(gender);
+        try (Step ignored = step("fillBasicCheckoutInfo")) {
+            Map<By, String> fields = new LinkedHashMap<>();
+            fields.put(fullNameField, fullName);
+            fields.put(emailField, email);
+            fields.put(phoneField, phone);
+            fields.put(mobileField, mobile);
+            fields.put(zipCodeField, zipCode);
+            fields.put(addressField, address);
+            fields.put(genderDropdown, gender);
+            fillForm(fields);
+        }
     }
 
     // ============================================
@@ -128,16 +161,22 @@ public class CheckoutPage extends BasePage {
     }
 
     public void fillCreditCardInfo(String cardNumber, String cardName, String expiry, String cvv) {
-        waitForElementToBeVisible(cardInfoSection);
-        clearAndSendKeys(cardNumberField, cardNumber);
-        clearAndSendKeys(cardNameField, cardName);
-        clearAndSendKeys(cardExpiryField, expiry);
-        clearAndSendKeys(cardCvvField, cvv);
+        try (Step ignored = step("fillCreditCardInfo")) {
+            waitForElementToBeVisible(cardInfoSection);
+            Map<By, String> fields = new LinkedHashMap<>();
+            fields.put(cardNumberField, cardNumber);
+            fields.put(cardNameField, cardName);
+            fields.put(cardExpiryField, expiry);
+            fields.put(cardCvvField, cvv);
+            fillForm(fields);
+        }
     }
 
     public void fillPayPalInfo(String paypalEmail) {
-        waitForElementToBeVisible(paypalSection);
-        clearAndSendKeys(paypalEmailField, paypalEmail);
+        try (Step ignored = step("fillPayPalInfo")) {
+            waitForElementToBeVisible(paypalSection);
+            clearAndSendKeys(paypalEmailField, paypalEmail);
+        }
     }
 
     // ============================================
@@ -145,13 +184,24 @@ public class CheckoutPage extends BasePage {
     // ============================================
 
     public void clickSubmitOrder() {
-        click(submitButton);
+        try (Step ignored = step("clickSubmitOrder")) {
+            click(submitButton);
+        }
     }
 
     public boolean isOrderPlacedSuccessfully() {
         return isElementDisplayed(successNotification);
     }
 
+    /**
+     * Waits up to the budget for the order to be confirmed, returning early
+     * if a validation message shows up instead.
+     */
+    public boolean isOrderPlacedSuccessfully(Duration budget) {
+        return successNotification.equals(waitForFirstPresent(budget, successNotification, validationMessage))
+                && isElementDisplayed(successNotification);
+    }
+
     public String getSuccessMessage() {
         if (isElementDisplayed(successNotification)) {
             return getElementText(successNotification);
@@ -0,0 +1,115 @@
+package com.cartify.pages;
+
+import com.cartify.pages.support.PageSnapshot;
+
+/**
+ * CheckoutSnapshot: The checkout form as read by one CheckoutPage.snapshot() call.
+ * Field values are the live values, as the form would submit them.
+ */
+public final class CheckoutSnapshot {
+
+    static final String FORM = "form";
+    static final String PAGE_TITLE = "pageTitle";
+    static final String FULL_NAME = "fullName";
+    static final String EMAIL = "email";
+    static final String PHONE = "phone";
+    static final String MOBILE = "mobile";
+    static final String ZIP_CODE = "zipCode";
+    static final String ADDRESS = "address";
+    static final String GENDER = "gender";
+    static final String PAYMENT = "payment";
+    static final String CARD_INFO = "cardInfo";
+    static final String PAYPAL = "paypal";
+    static final String SUCCESS = "success";
+    static final String VALIDATION = "validation";
+
+    private final PageSnapshot snapshot;
+
+    CheckoutSnapshot(PageSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public boolean isFormDisplayed() {
+        return snapshot.get(FORM).isDisplayed();
+    }
+
+    public String getPageTitle() {
+        return snapshot.get(PAGE_TITLE).getText();
+    }
+
+    public String getFullName() {
+        return value(FULL_NAME);
+    }
+
+    public String getEmail() {
+        return value(EMAIL);
+    }
+
+    public String getPhone() {
+        return value(PHONE);
+    }
+
+    public String getMobile() {
+        return value(MOBILE);
+    }
+
+    public String getZipCode() {
+        return value(ZIP_CODE);
+    }
+
+    public String getAddress() {
+        return value(ADDRESS);
+    }
+
+    /**
+     * Option value of the selected gender (e.g. "female").
+     */
+    public String getGender() {
+        return value(GENDER);
+    }
+
+    /**
+     * Option value of the selected payment method: cod, card or paypal.
+     */
+    public String getPaymentMethod() {
+        return value(PAYMENT);
+    }
+
+    public boolean isCardInfoVisible() {
+        return snapshot.get(CARD_INFO).isDisplayed();
+    }
+
+    public boolean isPayPalSectionVisible() {
+        return snapshot.get(PAYPAL).isDisplayed();
+    }
+
+    public boolean isOrderPlaced() {
+        return snapshot.get(SUCCESS).isDisplayed();
+    }
+
+    public String getSuccessMessage() {
+        return isOrderPlaced() ? snapshot.get(SUCCESS).getText() : "";
+    }
+
+    public boolean isValidationMessageDisplayed() {
+        return snapshot.get(VALIDATION).isDisplayed();
+    }
+
+    public String getValidationMessage() {
+        return isValidationMessageDisplayed() ? snapshot.get(VALIDATION).getText() : "";
+    }
+
+    public PageSnapshot getPageSnapshot() {
+        return snapshot;
+    }
+
+    private String value(String field) {
+        String value = snapshot.get(field).getAttribute("value");
+        return value != null ? value : "";
+    }
+
+    @Override
+    public String toString() {
+        return snapshot.toString();
+    }
+}
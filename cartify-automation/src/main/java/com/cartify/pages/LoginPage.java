@@ -1,53 +1,65 @@
 package com.cartify.pages;
 
+import com.cartify.config.CartifyConfig;
+import com.cartify.driver.DriverRegistry;
+import com.cartify.reporting.Step;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 public class LoginPage extends BasePage {
 
     @FindBy(id = "username")
-    private WebElement usernameInput;
+    By usernameInput;
 
     @FindBy(id = "password")
-    private WebElement passwordInput;
+    By passwordInput;
 
     @FindBy(id = "btn")
-    private WebElement loginButton;
+    By loginButton;
 
     @FindBy(xpath = "//a[contains(@href, 'login.html')]") // "Forget password?" link
-    private WebElement forgotPasswordLink;
+    By forgotPasswordLink;
 
     @FindBy(xpath = "//*[contains(text(), 'Wrong username or password')]")
-    private WebElement errorMessage;
+    By errorMessage;
+
+    @FindBy(id = "rememberMe")
+    By rememberMeCheckbox;
 
     public LoginPage(WebDriver driver) {
         super(driver);
-        PageFactory.initElements(driver, this);
+        LoginPage_Locators.bind(this);
     }
 
-    public void open() {
-        driver.get("https://cartify0.netlify.app/login.html");
+    /**
+     * Uses the driver bound to the current thread.
+     */
+    public LoginPage() {
+        this(DriverRegistry.get());
     }
 
-    @FindBy(id = "rememberMe")
-    private WebElement rememberMeCheckbox;
+    public void open() {
+        try (Step ignored = step("open")) {
+            driver.get(CartifyConfig.url("/login.html"));
+        }
+    }
 
     public void login(String username, String password) {
         login(username, password, false);
     }
 
     public void login(String username, String password, boolean rememberMe) {
-        type(usernameInput, username);
-        type(passwordInput, password);
-        if (rememberMe && !rememberMeCheckbox.isSelected()) {
-            // JS click for checkbox if needed, or standard click
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();",
-                    rememberMeCheckbox);
+        try (Step ignored = step("login")) {
+            clearAndSendKeys(usernameInput, username);
+            clearAndSendKeys(passwordInput, password);
+            if (rememberMe && !waitForElementToBeVisible(rememberMeCheckbox).isSelected()) {
+                // JS click for checkbox if needed, or standard click
+                clickWithJS(rememberMeCheckbox);
+            }
+            // Try JS click
+            clickWithJS(loginButton);
         }
-        // Try JS click
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", loginButton);
     }
 
     public void clickForgotPassword() {
@@ -55,6 +67,6 @@ public class LoginPage extends BasePage {
     }
 
     public String getErrorMessage() {
-        return getText(errorMessage);
+        return getElementText(errorMessage);
     }
 }
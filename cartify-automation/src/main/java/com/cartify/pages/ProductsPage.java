@@ -1,7 +1,14 @@
 package com.cartify.pages;
 
+import com.cartify.config.CartifyConfig;
+import com.cartify.driver.DriverRegistry;
+import com.cartify.pages.components.ElementCollection;
+import com.cartify.reporting.Step;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
 
 public class ProductsPage extends BasePage {
 
@@ -27,12 +34,17 @@ public class ProductsPage extends BasePage {
     private By sortDropdown = By.id("sort");
     private By productCardContainer = By.cssSelector(".product-card");
     private By addToWishlistButton = By.cssSelector(".btn-wishlist");
+    private By productCardTitle = By.cssSelector(".product-card .card-title");
+
+    // Product rows keyed by product name
+    private final ElementCollection products;
 
     /**
      * Constructor for tests using URL and timeout (from auto)
      */
     public ProductsPage(WebDriver driver, String url, int seconds) {
         super(driver, seconds, url);
+        this.products = new ElementCollection(driver, productItems, productName).withField("price", productPrice);
     }
 
     /**
@@ -40,6 +52,14 @@ public class ProductsPage extends BasePage {
      */
     public ProductsPage(WebDriver driver) {
         super(driver);
+        this.products = new ElementCollection(driver, productItems, productName).withField("price", productPrice);
+    }
+
+    /**
+     * Constructor using the driver bound to the current thread
+     */
+    public ProductsPage() {
+        this(DriverRegistry.get());
     }
 
     // ============================================
@@ -48,7 +68,8 @@ public class ProductsPage extends BasePage {
 
     @Override
     public boolean isPageLoaded() {
-        return isElementDisplayed(pageTitle) || isElementDisplayed(productCardContainer);
+        return waitForFirstPresent(timeout, pageTitle, productCardContainer) != null
+                && (isElementDisplayed(pageTitle) || isElementDisplayed(productCardContainer));
     }
 
     public void openProductsPage() {
@@ -63,7 +84,9 @@ public class ProductsPage extends BasePage {
         if (this.url != null && !this.url.isEmpty()) {
             super.open();
         } else {
-            driver.get("https://cartify0.netlify.app/products.html?categoryId=2");
+            try (Step ignored = step("open")) {
+                driver.get(CartifyConfig.url("/products.html?categoryId=2"));
+            }
         }
     }
 
@@ -76,7 +99,13 @@ public class ProductsPage extends BasePage {
     }
 
     public int getProductCount() {
-        return getElements(productItems).size();
+        // Let the catalogue render (items or its empty state) before counting
+        waitForFirstPresent(timeout, productItems, productCardContainer, emptyProductsMessage);
+        return products.size();
+    }
+
+    public List<String> getProductNames() {
+        return products.keys();
     }
 
     public boolean isEmptyProductsMessageDisplayed() {
@@ -100,11 +129,20 @@ public class ProductsPage extends BasePage {
     }
 
     public void addProductToCartByIndex(int index) {
-        var buttons = getElements(addToCartButtons);
-        if (index >= 0 && index < buttons.size()) {
-            buttons.get(index).click();
-        } else {
-            throw new RuntimeException("Product index out of range: " + index);
+        try (Step ignored = step("addProductToCartByIndex")) {
+            WebElement button = index < 0 ? null : products.actionAt(index, addToCartButtons).orElse(null);
+            if (button == null) {
+                throw new RuntimeException("Product index out of range: " + index);
+            }
+            button.click();
+        }
+    }
+
+    public void addProductToCart(String productName) {
+        try (Step ignored = step("addProductToCart")) {
+            WebElement button = products.action(productName, addToCartButtons)
+                    .orElseThrow(() -> new RuntimeException("Product not found: " + productName));
+            button.click();
         }
     }
 
@@ -117,8 +155,10 @@ public class ProductsPage extends BasePage {
     // ============================================
 
     public void searchFor(String term) {
-        sendKeys(searchBar, term);
-        click(searchButton);
+        try (Step ignored = step("searchFor")) {
+            sendKeys(searchBar, term);
+            click(searchButton);
+        }
     }
 
     public void goToCart() {
@@ -145,8 +185,15 @@ public class ProductsPage extends BasePage {
         return isElementDisplayed(productCardContainer);
     }
 
-    public void addToWishlist() {
+    /**
+     * Adds the first product card to the wishlist.
+     *
+     * @return the name of the product added
+     */
+    public String addToWishlist() {
+        String name = getElementText(productCardTitle);
         click(addToWishlistButton);
+        return name;
     }
 
     public String getProductsPageTitle() {
@@ -1,39 +1,60 @@
 package com.cartify.pages;
 
+import com.cartify.config.CartifyConfig;
+import com.cartify.driver.DriverRegistry;
+import com.cartify.reporting.Step;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+
+import java.time.Duration;
 
 public class ProfilePage extends BasePage {
 
     @FindBy(css = ".user-name")
-    private WebElement profileName;
+    By profileName;
 
     @FindBy(css = ".user-email")
-    private WebElement profileEmail;
+    By profileEmail;
 
     @FindBy(id = "save-btn") // Placeholder
-    private WebElement saveButton;
+    By saveButton;
 
     public ProfilePage(WebDriver driver) {
         super(driver);
-        PageFactory.initElements(driver, this);
+        ProfilePage_Locators.bind(this);
+    }
+
+    /**
+     * Uses the driver bound to the current thread.
+     */
+    public ProfilePage() {
+        this(DriverRegistry.get());
     }
 
     public void open() {
-        driver.get("https://cartify0.netlify.app/profile");
+        try (Step ignored = step("open")) {
+            driver.get(CartifyConfig.url("/profile"));
+        }
     }
 
     public boolean isProfileLoaded() {
-        return isDisplayed(profileName);
+        return isProfileLoaded(timeout);
+    }
+
+    /**
+     * Cheap logged-in check: the profile name only renders for a signed-in user,
+     * anyone else is sent to the login page.
+     */
+    public boolean isProfileLoaded(Duration timeout) {
+        return isElementDisplayed(profileName, timeout);
     }
 
     public String getProfileName() {
-        return getText(profileName);
+        return getElementText(profileName);
     }
 
     public String getProfileEmail() {
-        return getText(profileEmail);
+        return getElementText(profileEmail);
     }
 }
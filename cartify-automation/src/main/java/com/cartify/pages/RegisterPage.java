@@ -1,170 +1,202 @@
 package com.cartify.pages;
 
+import com.cartify.config.CartifyConfig;
+import com.cartify.driver.DriverRegistry;
+import com.cartify.reporting.Step;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class RegisterPage extends BasePage {
 
     // Step 1: Account Info
     @FindBy(id = "email")
-    private WebElement emailInput;
+    By emailInput;
 
     @FindBy(id = "username")
-    private WebElement usernameInput;
+    By usernameInput;
 
     @FindBy(id = "pw1")
-    private WebElement passwordInput;
+    By passwordInput;
 
     @FindBy(id = "pw2")
-    private WebElement confirmPasswordInput;
+    By confirmPasswordInput;
 
     // Step 2: Personal Info
     @FindBy(id = "FName")
-    private WebElement firstNameInput;
+    By firstNameInput;
 
     @FindBy(id = "LName")
-    private WebElement lastNameInput;
+    By lastNameInput;
 
     @FindBy(id = "telephone")
-    private WebElement phoneInput;
+    By phoneInput;
 
     // Step 3: Gender
     @FindBy(css = "label[for='malegen']")
-    private WebElement maleRadio;
+    By maleRadio;
 
     @FindBy(css = "label[for='femalegen']")
-    private WebElement femaleRadio;
+    By femaleRadio;
 
     // Step 4: Date
     @FindBy(id = "datepicker")
-    private WebElement birthDateInput;
+    By birthDateInput;
 
     // Step 5: Address (inferred from agent logs, might be on same step or next)
     @FindBy(css = "input[placeholder='Street Address']")
-    private WebElement streetAddressInput;
+    By streetAddressInput;
 
     @FindBy(css = "input[placeholder='City']")
-    private WebElement cityInput;
+    By cityInput;
 
     @FindBy(css = "input[placeholder='State']")
-    private WebElement stateInput;
+    By stateInput;
 
     @FindBy(css = "input[placeholder='ZIP Code']")
-    private WebElement zipCodeInput;
+    By zipCodeInput;
 
     @FindBy(css = "input[placeholder='Country']")
-    private WebElement countryInput;
+    By countryInput;
 
     // Buttons
     @FindBy(id = "next1")
-    private WebElement nextButton1;
+    By nextButton1;
 
     @FindBy(id = "next2")
-    private WebElement nextButton2;
+    By nextButton2;
 
     @FindBy(id = "next3")
-    private WebElement nextButton3; // Assuming there is a 3rd one or submit is next
+    By nextButton3; // Assuming there is a 3rd one or submit is next
 
     @FindBy(css = "input[value='Start for free']")
-    private WebElement submitButton;
+    By submitButton;
 
     @FindBy(xpath = "//*[contains(text(), 'Wrong') or contains(text(), 'Error') or contains(text(), 'required') or contains(text(), 'Password')]")
-    private WebElement errorMessage;
+    By errorMessage;
 
     public RegisterPage(WebDriver driver) {
         super(driver);
-        PageFactory.initElements(driver, this);
+        RegisterPage_Locators.bind(this);
+    }
+
+    /**
+     * Uses the driver bound to the current thread.
+     */
+    public RegisterPage() {
+        this(DriverRegistry.get());
     }
 
     public void open() {
-        driver.get("https://cartify0.netlify.app/register.html");
+        try (Step ignored = step("open")) {
+            driver.get(CartifyConfig.url("/register.html"));
+        }
     }
 
     public void fillAccountInfo(String email, String username, String password) {
-        type(emailInput, email);
-        type(usernameInput, username);
-        type(passwordInput, password);
-        type(confirmPasswordInput, password);
-        click(nextButton1);
+        try (Step ignored = step("fillAccountInfo")) {
+            Map<By, String> fields = new LinkedHashMap<>();
+            fields.put(emailInput, email);
+            fields.put(usernameInput, username);
+            fields.put(passwordInput, password);
+            fields.put(confirmPasswordInput, password);
+            fillForm(fields);
+            click(nextButton1);
+        }
     }
 
     public void fillPersonalInfo(String firstName, String lastName, String phone) {
-        type(firstNameInput, firstName);
-        type(lastNameInput, lastName);
-        type(phoneInput, phone);
+        try (Step ignored = step("fillPersonalInfo")) {
+            Map<By, String> fields = new LinkedHashMap<>();
+            fields.put(firstNameInput, firstName);
+            fields.put(lastNameInput, lastName);
+            fields.put(phoneInput, phone);
+            fillForm(fields);
+        }
     }
 
     public void selectGender(boolean isMale) {
-        System.out.println("Selecting gender: " + (isMale ? "Male" : "Female"));
-        if (isMale) {
-            click(maleRadio);
-        } else {
-            click(femaleRadio);
+        try (Step ignored = step("selectGender")) {
+            System.out.println("Selecting gender: " + (isMale ? "Male" : "Female"));
+            if (isMale) {
+                click(maleRadio);
+            } else {
+                click(femaleRadio);
+            }
+            System.out.println("Gender selected");
         }
-        System.out.println("Gender selected");
     }
 
     public void fillDate(String date) {
-        System.out.println("Filling date: " + date);
-        type(birthDateInput, date);
-        birthDateInput.sendKeys(org.openqa.selenium.Keys.TAB);
-        // Click body to close date picker if it's open
-        driver.findElement(org.openqa.selenium.By.tagName("body")).click();
-        System.out.println("Date filled and tabbed, body clicked");
+        try (Step ignored = step("fillDate")) {
+            System.out.println("Filling date: " + date);
+            clearAndSendKeys(birthDateInput, date);
+            sendKeys(birthDateInput, Keys.TAB.toString());
+            // Click body to close date picker if it's open
+            driver.findElement(By.tagName("body")).click();
+            System.out.println("Date filled and tabbed, body clicked");
+        }
     }
 
     public void clickNext() {
-        System.out.println("Clicking next2");
-        if (isDisplayed(errorMessage)) {
-            System.out.println("Error message displayed BEFORE clicking next2: " + getText(errorMessage));
-        }
-        // Ensure button is clickable
-        wait.until(ExpectedConditions.elementToBeClickable(nextButton2));
-        // Try JS click
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", nextButton2);
-        System.out.println("Clicked next2 via JS");
-
-        if (isDisplayed(errorMessage)) {
-            System.out.println("Error message displayed AFTER clicking next2: " + getText(errorMessage));
-        }
-        // Wait for address step to be visible
-        try {
-            wait.until(ExpectedConditions.visibilityOf(zipCodeInput));
-            System.out.println("Zip code input is now visible");
-        } catch (Exception e) {
-            System.out.println("Zip code input NOT visible after clicking next2");
+        try (Step ignored = step("clickNext")) {
+            System.out.println("Clicking next2");
+            if (isElementDisplayed(errorMessage)) {
+                System.out.println("Error message displayed BEFORE clicking next2: " + getElementText(errorMessage));
+            }
+            // Ensure button is clickable, then try JS click
+            WebElement next = waitForElementToBeClickable(nextButton2);
+            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", next);
+            System.out.println("Clicked next2 via JS");
+
+            if (isElementDisplayed(errorMessage)) {
+                System.out.println("Error message displayed AFTER clicking next2: " + getElementText(errorMessage));
+            }
+            // Wait for address step to be visible
+            try {
+                waitForElementToBeVisible(zipCodeInput);
+                System.out.println("Zip code input is now visible");
+            } catch (Exception e) {
+                System.out.println("Zip code input NOT visible after clicking next2");
+            }
         }
     }
 
     public void fillAddress(String street, String city, String state, String zip, String country) {
-        System.out.println("Current URL: " + driver.getCurrentUrl());
-        if (isDisplayed(errorMessage)) {
-            System.out.println("Error message displayed: " + getText(errorMessage));
+        try (Step ignored = step("fillAddress")) {
+            System.out.println("Current URL: " + driver.getCurrentUrl());
+            if (isElementDisplayed(errorMessage)) {
+                System.out.println("Error message displayed: " + getElementText(errorMessage));
+            }
+            Map<By, String> fields = new LinkedHashMap<>();
+            fields.put(streetAddressInput, street);
+            fields.put(cityInput, city);
+            fields.put(stateInput, state);
+            fields.put(zipCodeInput, zip);
+            fields.put(countryInput, country);
+            fillForm(fields);
+            click(submitButton);
         }
-        type(streetAddressInput, street);
-        type(cityInput, city);
-        type(stateInput, state);
-        type(zipCodeInput, zip);
-        type(countryInput, country);
-        click(submitButton);
     }
 
     public boolean isMaleSelected() {
-        return maleRadio.isSelected();
+        return driver.findElement(maleRadio).isSelected();
     }
 
     public boolean isFemaleSelected() {
-        return femaleRadio.isSelected();
+        return driver.findElement(femaleRadio).isSelected();
     }
 
     public String getBirthDate() {
-        return birthDateInput.getAttribute("value");
+        return getElementAttribute(birthDateInput, "value");
     }
 
     public String getErrorMessage() {
-        return getText(errorMessage);
+        return getElementText(errorMessage);
     }
 }
@@ -1,49 +1,58 @@
 package com.cartify.pages;
 
+import com.cartify.driver.DriverRegistry;
+import com.cartify.pages.components.ElementCollection;
+import com.cartify.reporting.Step;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class WishlistPage extends BasePage {
 
-    @FindBy(css = ".wishlist-item")
-    private List<WebElement> wishlistItems;
-
-    @FindBy(css = ".wishlist-item .product-name")
-    private List<WebElement> wishlistProductNames;
+    private static final By WISHLIST_ITEM = By.cssSelector(".wishlist-item");
+    private static final By PRODUCT_NAME = By.cssSelector(".product-name");
+    private static final By REMOVE_BUTTON = By.cssSelector(".remove-btn");
+    private static final By EMPTY_MESSAGE = By.cssSelector(".empty-wishlist-message");
+    // Cap on waiting for the list to render, for a page that shows no empty-state message
+    private static final Duration RENDER_BUDGET = Duration.ofSeconds(2);
 
-    @FindBy(css = ".wishlist-item .remove-btn")
-    private List<WebElement> removeButtons;
+    // Wishlist rows keyed by product name
+    private final ElementCollection wishlistItems;
 
     public WishlistPage(WebDriver driver) {
         super(driver);
-        PageFactory.initElements(driver, this);
+        this.wishlistItems = new ElementCollection(driver, WISHLIST_ITEM, PRODUCT_NAME);
+    }
+
+    /**
+     * Uses the driver bound to the current thread.
+     */
+    public WishlistPage() {
+        this(DriverRegistry.get());
     }
 
     public int getWishlistSize() {
+        // Let the list render (items or its empty state) before counting
+        waitForFirstPresent(RENDER_BUDGET, WISHLIST_ITEM, EMPTY_MESSAGE);
         return wishlistItems.size();
     }
 
     public List<String> getWishlistProductNames() {
-        return wishlistProductNames.stream()
-                .map(this::getText)
-                .collect(Collectors.toList());
+        return wishlistItems.keys();
     }
 
     public boolean isProductInWishlist(String productName) {
-        return getWishlistProductNames().contains(productName);
+        return wishlistItems.contains(productName);
     }
 
     public void removeProductFromWishlist(String productName) {
-        for (int i = 0; i < wishlistProductNames.size(); i++) {
-            if (getText(wishlistProductNames.get(i)).equals(productName)) {
-                click(removeButtons.get(i));
-                return;
-            }
+        try (Step ignored = step("removeProductFromWishlist")) {
+            WebElement removeButton = wishlistItems.action(productName, REMOVE_BUTTON)
+                    .orElseThrow(() -> new RuntimeException("Product " + productName + " not found in wishlist"));
+            click(removeButton);
         }
-        throw new RuntimeException("Product " + productName + " not found in wishlist");
     }
 }
@@ -0,0 +1,385 @@
+package com.cartify.pages.components;
+
+import com.cartify.pages.support.Locators;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * ElementCollection: Repeated rows on a page (product cards, cart items,
+ * wishlist items) read in bulk rather than one element at a time.
+ *
+ * Row data (the key plus any declared fields) is fetched by one script per
+ * window of rows, and iterating fetches the next window only when the
+ * previous one is used up. A single row's action element (its remove or add
+ * button) is resolved by key in one call, without reading the other rows.
+ *
+ * Lists that render on demand are supported too:
+ * withLoadMore      - a "load more" button, or infinite scroll when no button is given
+ * withVirtualScroll - a scroll container that only renders the rows in view
+ *
+ * Field and action locators are resolved inside each row.
+ */
+public class ElementCollection implements Iterable<ElementCollection.Row> {
+
+    private static final int DEFAULT_WINDOW = 50;
+    private static final long RENDER_TIMEOUT_MILLIS = 5000;
+
+    private static final String COLLECTION_SCRIPT = ""
+            + "var spec = arguments[0], op = arguments[1], params = arguments[2];"
+            + "var callback = arguments[arguments.length - 1];"
+            + "var findAll = " + Locators.FIND_ALL_FUNCTION + ";"
+            + "var isVisible = " + Locators.IS_VISIBLE_FUNCTION + ";"
+            + "function rows() { return findAll(spec.rows); }"
+            + "function text(el) { return el ? (el.innerText || el.textContent || '').trim() : null; }"
+            + "function keyOf(row) { return spec.key ? text(findAll(spec.key, row)[0]) : text(row); }"
+            + "function read(row, index) {"
+            + "  var fields = {};"
+            + "  Object.keys(spec.fields).forEach(function (name) {"
+            + "    fields[name] = text(findAll(spec.fields[name], row)[0]);"
+            + "  });"
+            + "  return { index: index, key: keyOf(row), fields: fields };"
+            + "}"
+            + "function target(row) { return params.action ? findAll(params.action, row)[0] || null : row; }"
+            + "function afterRender(done) {"
+            + "  requestAnimationFrame(function () { requestAnimationFrame(done); });"
+            + "}"
+            + "var all = rows();"
+            + "switch (op) {"
+            + "  case 'count':"
+            + "    callback(all.length); return;"
+            + "  case 'window':"
+            + "    callback({ total: all.length, rows: all.slice(params.from, params.from + params.count)"
+            + "        .map(function (row, i) { return read(row, params.from + i); }) });"
+            + "    return;"
+            + "  case 'find':"
+            + "    for (var i = 0; i < all.length; i++) {"
+            + "      if (keyOf(all[i]) === params.key) { callback({ row: read(all[i], i), element: target(all[i]) }); return; }"
+            + "    }"
+            + "    callback(null); return;"
+            + "  case 'at':"
+            + "    callback(params.index < all.length ? target(all[params.index]) : null); return;"
+            + "  case 'scroll':"
+            + "    var box = findAll(spec.scroller)[0];"
+            + "    if (!box) { callback({ atEnd: true }); return; }"
+            + "    box.scrollTop = params.reset ? 0 : box.scrollTop + box.clientHeight;"
+            + "    afterRender(function () {"
+            + "      callback({ atEnd: box.scrollTop + box.clientHeight >= box.scrollHeight - 1 });"
+            + "    });"
+            + "    return;"
+            + "  case 'more':"
+            + "    var before = all.length, trigger = spec.loadMore ? findAll(spec.loadMore)[0] : null;"
+            + "    if (spec.loadMore && !(trigger && isVisible(trigger) && !trigger.disabled)) { callback(before); return; }"
+            + "    if (trigger) { trigger.click(); } else if (before) { all[before - 1].scrollIntoView({ block: 'end' }); }"
+            + "    var observer, timer;"
+            + "    function finish() { observer.disconnect(); clearTimeout(timer); callback(rows().length); }"
+            + "    observer = new MutationObserver(function () { if (rows().length > before) { finish(); } });"
+            + "    observer.observe(document, { childList: true, subtree: true });"
+            + "    timer = setTimeout(finish, params.timeout);"
+            + "    return;"
+            + "}"
+            + "throw new Error('Unknown collection operation: ' + op);";
+
+    private final WebDriver driver;
+    private final Map<String, Object> spec = new LinkedHashMap<>();
+    private final Map<String, Map<String, String>> fields = new LinkedHashMap<>();
+    private int windowSize = DEFAULT_WINDOW;
+    private boolean loadMore;
+    private boolean virtualScroll;
+
+    /**
+     * @param rowLocator matches every row
+     * @param keyLocator element inside a row whose text identifies it; null to key rows by their whole text
+     */
+    public ElementCollection(WebDriver driver, By rowLocator, By keyLocator) {
+        this.driver = driver;
+        spec.put("rows", Locators.toScriptArgument(rowLocator));
+        spec.put("key", keyLocator != null ? Locators.toScriptArgument(keyLocator) : null);
+        spec.put("fields", fields);
+        spec.put("loadMore", null);
+        spec.put("scroller", null);
+    }
+
+    /**
+     * Also reads the text of this element (inside each row) into Row#get(name).
+     */
+    public ElementCollection withField(String name, By locator) {
+        fields.put(name, Locators.toScriptArgument(locator));
+        return this;
+    }
+
+    public ElementCollection withWindowSize(int rows) {
+        this.windowSize = Math.max(1, rows);
+        return this;
+    }
+
+    /**
+     * Rows beyond the rendered ones appear after clicking this button, or
+     * after scrolling the last row into view when trigger is null.
+     */
+    public ElementCollection withLoadMore(By trigger) {
+        this.loadMore = true;
+        spec.put("loadMore", trigger != null ? Locators.toScriptArgument(trigger) : null);
+        return this;
+    }
+
+    /**
+     * Only the rows in view of this scroll container exist in the DOM.
+     */
+    public ElementCollection withVirtualScroll(By scrollContainer) {
+        this.virtualScroll = true;
+        spec.put("scroller", Locators.toScriptArgument(scrollContainer));
+        return this;
+    }
+
+    // ============================================
+    // Reading Rows
+    // ============================================
+
+    /**
+     * Number of rows. One call for plain lists; on-demand lists are loaded
+     * (or scrolled) through to the end first.
+     */
+    public int size() {
+        if (!loadMore && !virtualScroll) {
+            return ((Number) run("count", Map.of())).intValue();
+        }
+        int size = 0;
+        for (Row ignored : this) {
+            size++;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+    /**
+     * Rows [from, from + count) of the rendered list, in one call.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Row> window(int from, int count) {
+        Map<String, Object> result = (Map<String, Object>) run("window", Map.of("from", from, "count", count));
+        List<Row> rows = new ArrayList<>();
+        for (Map<String, Object> raw : (List<Map<String, Object>>) result.get("rows")) {
+            rows.add(new Row(raw));
+        }
+        return rows;
+    }
+
+    public List<String> keys() {
+        List<String> keys = new ArrayList<>();
+        for (Row row : this) {
+            keys.add(row.getKey());
+        }
+        return keys;
+    }
+
+    public List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        forEach(rows::add);
+        return rows;
+    }
+
+    /**
+     * Iterates all rows a window at a time, loading or scrolling for more
+     * only when the rows fetched so far are used up.
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        return virtualScroll ? new VirtualIterator() : new WindowIterator();
+    }
+
+    // ============================================
+    // Finding Rows and Actions
+    // ============================================
+
+    public Optional<Row> find(String key) {
+        return Optional.ofNullable(locate(key, null)).map(found -> new Row(castMap(found.get("row"))));
+    }
+
+    public boolean contains(String key) {
+        return find(key).isPresent();
+    }
+
+    /**
+     * The element matching actionLocator inside the row with this key,
+     * or the row itself when actionLocator is null.
+     */
+    public Optional<WebElement> action(String key, By actionLocator) {
+        return Optional.ofNullable(locate(key, actionLocator)).map(found -> (WebElement) found.get("element"));
+    }
+
+    /**
+     * The action element of the row at this position in the rendered list.
+     */
+    public Optional<WebElement> actionAt(int index, By actionLocator) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("index", index);
+        params.put("action", actionLocator != null ? Locators.toScriptArgument(actionLocator) : null);
+        return Optional.ofNullable((WebElement) run("at", params));
+    }
+
+    // Looks in the rendered rows first, then loads or scrolls on demand until found or exhausted
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> locate(String key, By actionLocator) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("key", key);
+        params.put("action", actionLocator != null ? Locators.toScriptArgument(actionLocator) : null);
+        Map<String, Object> found = (Map<String, Object>) run("find", params);
+        if (found != null || (!loadMore && !virtualScroll)) {
+            return found;
+        }
+        if (virtualScroll) {
+            boolean atEnd = scroll(true);
+            while (found == null) {
+                found = (Map<String, Object>) run("find", params);
+                if (found != null || atEnd) {
+                    return found;
+                }
+                atEnd = scroll(false);
+            }
+            return found;
+        }
+        while (found == null && loadMoreRows()) {
+            found = (Map<String, Object>) run("find", params);
+        }
+        return found;
+    }
+
+    // ============================================
+    // Helpers
+    // ============================================
+
+    private boolean loadMoreRows() {
+        int before = ((Number) run("count", Map.of())).intValue();
+        int after = ((Number) run("more", Map.of("timeout", RENDER_TIMEOUT_MILLIS))).intValue();
+        return after > before;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean scroll(boolean reset) {
+        Map<String, Object> result = (Map<String, Object>) run("scroll", Map.of("reset", reset));
+        return Boolean.TRUE.equals(result.get("atEnd"));
+    }
+
+    private Object run(String op, Map<String, Object> params) {
+        return ((JavascriptExecutor) driver).executeAsyncScript(COLLECTION_SCRIPT, spec, op, params);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    private class WindowIterator implements Iterator<Row> {
+
+        private final List<Row> buffer = new ArrayList<>();
+        private int next;
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (buffer.isEmpty() && !exhausted) {
+                buffer.addAll(window(next, windowSize));
+                if (buffer.isEmpty() && loadMore && loadMoreRows()) {
+                    buffer.addAll(window(next, windowSize));
+                }
+                next += buffer.size();
+                exhausted = buffer.isEmpty();
+            }
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.remove(0);
+        }
+    }
+
+    // Rendered rows are re-read after each scroll; keys already returned are skipped
+    private class VirtualIterator implements Iterator<Row> {
+
+        private final List<Row> buffer = new ArrayList<>();
+        private final Set<String> seen = new HashSet<>();
+        private boolean started;
+        private boolean atEnd;
+
+        @Override
+        public boolean hasNext() {
+            while (buffer.isEmpty() && !(started && atEnd)) {
+                atEnd = started ? scroll(false) : scroll(true);
+                started = true;
+                for (Row row : window(0, Integer.MAX_VALUE)) {
+                    if (seen.add(row.getKey())) {
+                        buffer.add(row);
+                    }
+                }
+            }
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.remove(0);
+        }
+    }
+
+    /**
+     * Row: The data of one row as read in its window. Index is the row's position
+     * among the rendered rows at read time; for virtual lists it is relative to the view.
+     */
+    public static final class Row {
+
+        private final int index;
+        private final String key;
+        private final Map<String, String> fields;
+
+        @SuppressWarnings("unchecked")
+        Row(Map<String, Object> raw) {
+            this.index = ((Number) raw.get("index")).intValue();
+            this.key = (String) raw.get("key");
+            // Not Map.copyOf: a field missing from the row reads as null
+            this.fields = Collections.unmodifiableMap(new LinkedHashMap<>((Map<String, String>) raw.get("fields")));
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Text of a field declared with withField, or null if the row has no such element.
+         */
+        public String get(String field) {
+            return fields.get(field);
+        }
+
+        @Override
+        public String toString() {
+            return key + (fields.isEmpty() ? "" : " " + fields);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.cartify.pages.support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DomWaits: Waits that run inside the page.
+ * Each wait is a single executeAsyncScript that re-checks its condition on
+ * every DOM mutation (plus a short in-page tick for style-only and URL
+ * changes), so it returns as soon as the condition holds instead of on the
+ * next 500 ms WebDriverWait poll.
+ *
+ * Failures throw org.openqa.selenium.TimeoutException, like WebDriverWait.
+ */
+public class DomWaits {
+
+    /** Each script call stays below the session script timeout set by DriverFactory. */
+    private static final long MAX_SCRIPT_MILLIS = Duration.ofSeconds(25).toMillis();
+
+    private static final String WAIT_SCRIPT = ""
+            + "var spec = arguments[0], timeout = arguments[1], callback = arguments[arguments.length - 1];"
+            + "var findAll = " + Locators.FIND_ALL_FUNCTION + ";"
+            + "var isVisible = " + Locators.IS_VISIBLE_FUNCTION + ";"
+            + "function evaluate() {"
+            + "  if (spec.condition === 'url') {"
+            + "    return window.location.href.indexOf(spec.text) >= 0 ? { value: true } : null;"
+            + "  }"
+            + "  var elements = findAll(spec.locator);"
+            + "  switch (spec.condition) {"
+            + "    case 'visible':"
+            + "      return elements.length && isVisible(elements[0]) ? { element: elements[0] } : null;"
+            + "    case 'clickable':"
+            + "      return elements.length && isVisible(elements[0]) && !elements[0].disabled"
+            + "          ? { element: elements[0] } : null;"
+            + "    case 'invisible':"
+            + "      return elements.every(function (e) { return !isVisible(e); }) ? { value: true } : null;"
+            + "    case 'text':"
+            + "      return elements.length && (elements[0].innerText || '').indexOf(spec.text) >= 0"
+            + "          ? { value: true } : null;"
+            + "  }"
+            + "  throw new Error('Unknown wait condition: ' + spec.condition);"
+            + "}"
+            + "var initial = evaluate();"
+            + "function withEpoch(result) { result.epoch = " + MutationEpoch.EXPRESSION + "; return result; }"
+            + "if (initial) { callback(withEpoch(initial)); return; }"
+            + "var finished = false, observer, ticker, timer;"
+            + "function finish(result) {"
+            + "  if (finished) { return; }"
+            + "  finished = true;"
+            + "  observer.disconnect(); clearInterval(ticker); clearTimeout(timer);"
+            + "  callback(withEpoch(result || { timedOut: true }));"
+            + "}"
+            + "function check() { var result = evaluate(); if (result) { finish(result); } }"
+            + "observer = new MutationObserver(check);"
+            + "observer.observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "ticker = setInterval(check, 100);"
+            + "timer = setTimeout(function () { finish(null); }, timeout);";
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public DomWaits(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    public WebElement visible(By locator) {
+        return (WebElement) await(elementSpec("visible", locator), locator).get("element");
+    }
+
+    public WebElement clickable(By locator) {
+        return (WebElement) await(elementSpec("clickable", locator), locator).get("element");
+    }
+
+    public boolean invisible(By locator) {
+        await(elementSpec("invisible", locator), locator);
+        return true;
+    }
+
+    public boolean textPresent(By locator, String text) {
+        Map<String, Object> spec = elementSpec("text", locator);
+        spec.put("text", text);
+        await(spec, locator);
+        return true;
+    }
+
+    public boolean urlContains(String fraction) {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("condition", "url");
+        spec.put("text", fraction);
+        await(spec, "url containing " + fraction);
+        return true;
+    }
+
+    private static Map<String, Object> elementSpec(String condition, By locator) {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("condition", condition);
+        spec.put("locator", Locators.toScriptArgument(locator));
+        return spec;
+    }
+
+    /**
+     * Runs the wait script until it matches or the timeout elapses. Long timeouts are
+     * split into several script calls, and a navigation mid-wait re-arms the wait on the
+     * new document.
+     */
+    private Map<?, ?> await(Map<String, Object> spec, Object description) {
+        long start = System.nanoTime();
+        while (true) {
+            long remaining = timeout.toMillis() - (System.nanoTime() - start) / 1_000_000;
+            if (remaining <= 0) {
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for "
+                        + spec.get("condition") + ": " + description);
+            }
+            try {
+                Map<?, ?> result = (Map<?, ?>) ((JavascriptExecutor) driver)
+                        .executeAsyncScript(WAIT_SCRIPT, spec, Math.min(remaining, MAX_SCRIPT_MILLIS));
+                MutationEpoch.observe(driver, result.get("epoch"));
+                if (!Boolean.TRUE.equals(result.get("timedOut"))) {
+                    return result;
+                }
+            } catch (WebDriverException e) {
+                // "document unloaded while waiting for result": wait on the new document
+                if (!String.valueOf(e.getMessage()).contains("unloaded")) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
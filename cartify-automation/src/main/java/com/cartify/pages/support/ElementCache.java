@@ -0,0 +1,175 @@
+package com.cartify.pages.support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * ElementCache: Element handles a page object already found, by locator, so a
+ * repeated interaction on an unchanged page skips the find round trip.
+ *
+ * A hit is checked in one script call, which reads the page's mutation epoch
+ * (see MutationEpoch) and the handle's state together. An entry is dropped when:
+ * - the epoch differs from the epoch at caching time (nodes were added or removed)
+ * - the handle is no longer attached to the document
+ * - using the handle throws StaleElementReferenceException (reported by the caller)
+ *
+ * The check also reports whether the element is visible and enabled, so the
+ * caller can act at once or fall back to its normal wait. Caching reads the
+ * epoch with a script call too. One cache belongs to one page object and one thread.
+ */
+public class ElementCache {
+
+    // The current epoch and the handle's state, read in the same round trip
+    private static final String CHECK_SCRIPT = ""
+            + "var el = arguments[0], isVisible = " + Locators.IS_VISIBLE_FUNCTION + ";"
+            + "return { epoch: " + MutationEpoch.EXPRESSION + ", connected: el.isConnected,"
+            + " visible: isVisible(el), enabled: !el.disabled };";
+
+    private static final String EPOCH_SCRIPT = "return " + MutationEpoch.EXPRESSION + ";";
+
+    private final WebDriver driver;
+    private final Map<By, Entry> entries = new HashMap<>();
+    private int hits;
+    private int misses;
+    private int staleEvictions;
+    private int epochEvictions;
+
+    public ElementCache(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * The cached handle for this locator, or null on a miss. A current handle that
+     * does not pass the ready check, e.g. a button that is not enabled yet, also
+     * counts as a miss and stays cached until the caller's lookup replaces it.
+     */
+    public Hit get(By locator, Predicate<Hit> ready) {
+        Entry entry = entries.get(locator);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        Map<?, ?> state;
+        try {
+            state = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(CHECK_SCRIPT, entry.element);
+        } catch (StaleElementReferenceException e) {
+            state = null;
+        }
+        if (state == null || !Boolean.TRUE.equals(state.get("connected"))) {
+            entries.remove(locator);
+            staleEvictions++;
+            misses++;
+            return null;
+        }
+        String epoch = state.get("epoch") != null ? state.get("epoch").toString() : null;
+        MutationEpoch.observe(driver, epoch);
+        if (!Objects.equals(entry.epoch, epoch)) {
+            entries.remove(locator);
+            epochEvictions++;
+            misses++;
+            return null;
+        }
+        Hit hit = new Hit(entry.element, Boolean.TRUE.equals(state.get("visible")),
+                Boolean.TRUE.equals(state.get("enabled")));
+        if (!ready.test(hit)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return hit;
+    }
+
+    public void put(By locator, WebElement element) {
+        Object epoch = ((JavascriptExecutor) driver).executeScript(EPOCH_SCRIPT);
+        MutationEpoch.observe(driver, epoch);
+        entries.put(locator, new Entry(element, epoch != null ? epoch.toString() : null));
+    }
+
+    /**
+     * Drops the entry after its handle turned out to be stale or unusable; the
+     * lookup that counted as a hit is recounted as a miss.
+     */
+    public void evictStale(By locator) {
+        if (entries.remove(locator) != null) {
+            staleEvictions++;
+            hits--;
+            misses++;
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int getStaleEvictions() {
+        return staleEvictions;
+    }
+
+    public int getEpochEvictions() {
+        return epochEvictions;
+    }
+
+    public double getHitRate() {
+        int lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ElementCache{hits=%d, misses=%d, hitRate=%.0f%%, stale=%d, epochChanges=%d}",
+                hits, misses, getHitRate() * 100, staleEvictions, epochEvictions);
+    }
+
+    /**
+     * A cached handle that passed the check, with the state the check saw.
+     */
+    public static final class Hit {
+        private final WebElement element;
+        private final boolean visible;
+        private final boolean enabled;
+
+        private Hit(WebElement element, boolean visible, boolean enabled) {
+            this.element = element;
+            this.visible = visible;
+            this.enabled = enabled;
+        }
+
+        public WebElement getElement() {
+            return element;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+    }
+
+    private static final class Entry {
+        private final WebElement element;
+        private final String epoch;
+
+        private Entry(WebElement element, String epoch) {
+            this.element = element;
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.cartify.pages.support;
+
+import java.util.Map;
+
+/**
+ * ElementState: What a PageSnapshot saw for one locator. Describes the first
+ * match; getCount() tells how many elements matched.
+ */
+public final class ElementState {
+
+    static final ElementState ABSENT = new ElementState(0, false, false, "", Map.of());
+
+    private final int count;
+    private final boolean displayed;
+    private final boolean enabled;
+    private final String text;
+    private final Map<String, String> attributes;
+
+    ElementState(int count, boolean displayed, boolean enabled, String text, Map<String, String> attributes) {
+        this.count = count;
+        this.displayed = displayed;
+        this.enabled = enabled;
+        this.text = text;
+        this.attributes = Map.copyOf(attributes);
+    }
+
+    public boolean isPresent() {
+        return count > 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rendered text, trimmed; empty when the element is absent.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * A captured attribute or property, or null when absent or not requested.
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public String toString() {
+        if (!isPresent()) {
+            return "absent";
+        }
+        return (displayed ? "displayed" : "hidden") + (enabled ? "" : ", disabled")
+                + (count > 1 ? ", " + count + " matches" : "") + ", text='" + text + "'"
+                + (attributes.isEmpty() ? "" : ", " + attributes);
+    }
+}
@@ -0,0 +1,142 @@
+package com.cartify.pages.support;
+
+import com.cartify.reporting.Step;
+import com.cartify.reporting.StepTimeline;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.Select;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FormFiller: Fills a whole form in one executeScript call.
+ * Values go through the element's native value setter (so framework-bound
+ * inputs see them) followed by input, change and blur events. Selects match
+ * an option by visible text, then by value; checkboxes and radios take
+ * "true"/"false" and are clicked when they need to change.
+ *
+ * The script reports what each field ended up holding. Fields it could not
+ * set (not rendered yet, hidden, disabled, a locator scripts cannot resolve,
+ * or a value the page rewrote) are filled again the slow way: visibility
+ * wait and real keystrokes, each as its own step in the test's timeline.
+ */
+public class FormFiller {
+
+    private static final String FILL_SCRIPT = ""
+            + "var fields = arguments[0];"
+            + "var findAll = " + Locators.FIND_ALL_FUNCTION + ";"
+            + "var isVisible = " + Locators.IS_VISIBLE_FUNCTION + ";"
+            + "function setValue(el, value) {"
+            + "  var descriptor = Object.getOwnPropertyDescriptor(Object.getPrototypeOf(el), 'value');"
+            + "  if (descriptor && descriptor.set) { descriptor.set.call(el, value); } else { el.value = value; }"
+            + "}"
+            + "function optionFor(select, value) {"
+            + "  var options = Array.prototype.slice.call(select.options);"
+            + "  return options.filter(function (o) { return o.text.trim() === value; })[0]"
+            + "      || options.filter(function (o) { return o.value === value; })[0];"
+            + "}"
+            + "return fields.map(function (field) {"
+            + "  if (!field.element && !field.locator) { return { status: 'unsupported' }; }"
+            + "  var el = field.element || findAll(field.locator)[0];"
+            + "  if (!el) { return { status: 'missing' }; }"
+            + "  var tag = el.tagName.toLowerCase(), type = (el.type || '').toLowerCase();"
+            + "  if (!isVisible(el)) { return { status: 'hidden', tag: tag }; }"
+            + "  if (el.disabled || el.readOnly) { return { status: 'disabled', tag: tag }; }"
+            + "  el.focus();"
+            + "  if (type === 'checkbox' || type === 'radio') {"
+            + "    if (el.checked !== (field.value === 'true')) { el.click(); }"
+            + "    el.blur();"
+            + "    return { status: 'set', tag: tag, actual: String(el.checked), value: String(el.checked) };"
+            + "  }"
+            + "  if (tag === 'select') {"
+            + "    var option = optionFor(el, field.value);"
+            + "    if (!option) { el.blur(); return { status: 'no-option', tag: tag }; }"
+            + "    setValue(el, option.value);"
+            + "  } else {"
+            + "    setValue(el, field.value);"
+            + "  }"
+            + "  el.dispatchEvent(new Event('input', { bubbles: true }));"
+            + "  el.dispatchEvent(new Event('change', { bubbles: true }));"
+            + "  el.blur();"
+            + "  var actual = tag === 'select'"
+            + "      ? (el.selectedIndex >= 0 ? el.options[el.selectedIndex].text.trim() : '') : el.value;"
+            + "  return { status: 'set', tag: tag, actual: actual, value: el.value };"
+            + "});";
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+
+    public FormFiller(WebDriver driver, WebDriverWait wait) {
+        this.driver = driver;
+        this.wait = wait;
+    }
+
+    /**
+     * Fills the fields in map order; keys are By locators or WebElements.
+     */
+    @SuppressWarnings("unchecked")
+    public void fill(Map<?, String> values) {
+        // Entries are walked rather than looked up: hashing a PageFactory proxy locates the element again
+        List<Map.Entry<?, String>> entries = new ArrayList<>(values.entrySet());
+        List<Map<String, Object>> fields = new ArrayList<>();
+        for (Map.Entry<?, String> entry : entries) {
+            Object target = entry.getKey();
+            Map<String, Object> field = new LinkedHashMap<>();
+            if (target instanceof By && Locators.isSupported((By) target)) {
+                field.put("locator", Locators.toScriptArgument((By) target));
+            } else if (target instanceof WebElement) {
+                field.put("element", target);
+            }
+            field.put("value", entry.getValue());
+            fields.add(field);
+        }
+
+        List<Map<String, Object>> results = (List<Map<String, Object>>)
+                ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, fields);
+
+        for (int i = 0; i < entries.size(); i++) {
+            Object target = entries.get(i).getKey();
+            String expected = entries.get(i).getValue();
+            Map<String, Object> result = results.get(i);
+            if (!isFilled(result, expected)) {
+                try (Step ignored = StepTimeline.begin("FormFiller.typed " + target + " (" + result.get("status") + ")")) {
+                    fillWithKeystrokes(target, expected);
+                }
+            }
+        }
+    }
+
+    private static boolean isFilled(Map<String, Object> result, String expected) {
+        return "set".equals(result.get("status"))
+                && (expected.equals(result.get("actual")) || expected.equals(result.get("value")));
+    }
+
+    private void fillWithKeystrokes(Object target, String value) {
+        WebElement element = target instanceof By
+                ? wait.until(ExpectedConditions.visibilityOfElementLocated((By) target))
+                : wait.until(ExpectedConditions.visibilityOf((WebElement) target));
+        String type = String.valueOf(element.getAttribute("type")).toLowerCase();
+        if ("select".equalsIgnoreCase(element.getTagName())) {
+            Select select = new Select(element);
+            try {
+                select.selectByVisibleText(value);
+            } catch (org.openqa.selenium.NoSuchElementException e) {
+                select.selectByValue(value);
+            }
+        } else if ("checkbox".equals(type) || "radio".equals(type)) {
+            if (element.isSelected() != Boolean.parseBoolean(value)) {
+                element.click();
+            }
+        } else {
+            element.clear();
+            element.sendKeys(value);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.cartify.pages.support;
+
+import org.openqa.selenium.By;
+
+import java.util.Map;
+
+/**
+ * Locators: Translates By locators into a form in-page scripts can resolve,
+ * so waits, snapshots and form fills can find elements without a
+ * findElement round trip per locator.
+ */
+public final class Locators {
+
+    private static final Map<String, String> STRATEGIES = Map.of(
+            "By.id", "id",
+            "By.cssSelector", "css selector",
+            "By.xpath", "xpath",
+            "By.name", "name",
+            "By.className", "class name",
+            "By.tagName", "tag name",
+            "By.linkText", "link text",
+            "By.partialLinkText", "partial link text");
+
+    /**
+     * JS function (locator, root) returning an array of matching elements;
+     * locator is the map produced by {@link #toScriptArgument(By)}.
+     */
+    public static final String FIND_ALL_FUNCTION = ""
+            + "function (l, root) {"
+            + "  root = root || document;"
+            + "  var all = function (css) { return Array.prototype.slice.call(root.querySelectorAll(css)); };"
+            + "  var links = function (match) {"
+            + "    return all('a').filter(function (a) { return match((a.innerText || a.textContent || '').trim()); });"
+            + "  };"
+            + "  switch (l.using) {"
+            + "    case 'id': return all('#' + CSS.escape(l.value));"
+            + "    case 'css selector': return all(l.value);"
+            + "    case 'class name': return all('.' + CSS.escape(l.value));"
+            + "    case 'name': return all('[name=\"' + CSS.escape(l.value) + '\"]');"
+            + "    case 'tag name': return all(l.value);"
+            + "    case 'link text': return links(function (t) { return t === l.value; });"
+            + "    case 'partial link text': return links(function (t) { return t.indexOf(l.value) >= 0; });"
+            + "    case 'xpath':"
+            + "      var snapshot = document.evaluate(l.value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "      var nodes = [];"
+            + "      for (var i = 0; i < snapshot.snapshotLength; i++) { nodes.push(snapshot.snapshotItem(i)); }"
+            + "      return nodes;"
+            + "  }"
+            + "  throw new Error('Unsupported locator strategy: ' + l.using);"
+            + "}";
+
+    /**
+     * JS function (element) approximating WebElement.isDisplayed().
+     */
+    public static final String IS_VISIBLE_FUNCTION = ""
+            + "function (el) {"
+            + "  if (!el || !el.isConnected) { return false; }"
+            + "  var style = window.getComputedStyle(el);"
+            + "  if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') { return false; }"
+            + "  var rect = el.getBoundingClientRect();"
+            + "  return rect.width > 0 && rect.height > 0;"
+            + "}";
+
+    private Locators() {
+    }
+
+    public static boolean isSupported(By locator) {
+        return STRATEGIES.containsKey(prefix(locator));
+    }
+
+    /**
+     * Serialises a locator as {using, value} for FIND_ALL_FUNCTION.
+     */
+    public static Map<String, String> toScriptArgument(By locator) {
+        String description = locator.toString();
+        String using = STRATEGIES.get(prefix(locator));
+        if (using == null) {
+            throw new IllegalArgumentException("Locator cannot be resolved in-page: " + description);
+        }
+        return Map.of("using", using, "value", description.substring(description.indexOf(": ") + 2));
+    }
+
+    private static String prefix(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(": ");
+        return separator < 0 ? description : description.substring(0, separator);
+    }
+}
@@ -0,0 +1,42 @@
+package com.cartify.pages.support;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * MutationEpoch: A counter of DOM structure changes, kept in the page by the
+ * PageStability instrumentation and tagged with the document it belongs to.
+ * While the epoch is unchanged no node has been added or removed, so element
+ * handles found earlier still point at the same matches.
+ *
+ * The wait and stability scripts return the current epoch with their result,
+ * and ElementCache reads it in the same call that checks a cached handle; the
+ * latest one seen is kept per driver.
+ */
+public final class MutationEpoch {
+
+    /** JS expression for the current epoch, or null when the page is not instrumented. */
+    static final String EXPRESSION = "(window.__cartifyStability"
+            + " ? window.__cartifyStability.document + ':' + window.__cartifyStability.epoch : null)";
+
+    private static final Map<WebDriver, String> LATEST = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private MutationEpoch() {
+    }
+
+    static void observe(WebDriver driver, Object epoch) {
+        if (epoch != null) {
+            LATEST.put(driver, epoch.toString());
+        }
+    }
+
+    /**
+     * The most recently reported epoch for this driver, or null if none was reported yet.
+     */
+    public static String latest(WebDriver driver) {
+        return LATEST.get(driver);
+    }
+}
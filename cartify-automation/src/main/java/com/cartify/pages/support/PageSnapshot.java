@@ -0,0 +1,107 @@
+package com.cartify.pages.support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PageSnapshot: Text, visibility, enabled state and selected attributes of a
+ * set of named locators, read in one script call. Assertions then read the
+ * snapshot locally instead of making a round trip (and a wait) per check.
+ *
+ * A snapshot is a point-in-time copy: take it once the page has rendered,
+ * and take a new one after interacting with the page.
+ */
+public final class PageSnapshot {
+
+    private static final String SNAPSHOT_SCRIPT = ""
+            + "var specs = arguments[0], attributes = arguments[1];"
+            + "var findAll = " + Locators.FIND_ALL_FUNCTION + ";"
+            + "var isVisible = " + Locators.IS_VISIBLE_FUNCTION + ";"
+            + "var elements = {};"
+            + "specs.forEach(function (spec) {"
+            + "  var matches = findAll(spec.locator);"
+            + "  if (!matches.length) { elements[spec.name] = { count: 0 }; return; }"
+            + "  var el = matches[0], attrs = {};"
+            + "  attributes.forEach(function (a) {"
+            + "    var value = a in el && typeof el[a] !== 'object' && typeof el[a] !== 'function'"
+            + "        ? el[a] : el.getAttribute(a);"
+            + "    if (value !== null && value !== undefined) { attrs[a] = String(value); }"
+            + "  });"
+            + "  elements[spec.name] = {"
+            + "    count: matches.length,"
+            + "    displayed: isVisible(el),"
+            + "    enabled: !el.disabled,"
+            + "    text: (el.innerText || el.textContent || '').trim(),"
+            + "    attributes: attrs"
+            + "  };"
+            + "});"
+            + "return { title: document.title, url: window.location.href, elements: elements };";
+
+    private final String title;
+    private final String url;
+    private final Map<String, ElementState> elements;
+
+    private PageSnapshot(String title, String url, Map<String, ElementState> elements) {
+        this.title = title;
+        this.url = url;
+        this.elements = Map.copyOf(elements);
+    }
+
+    /**
+     * @param locators   locators by the name the snapshot is read with
+     * @param attributes attributes (or properties, such as value) to capture for every locator
+     */
+    @SuppressWarnings("unchecked")
+    public static PageSnapshot capture(WebDriver driver, Map<String, By> locators, Collection<String> attributes) {
+        List<Map<String, Object>> specs = new ArrayList<>();
+        for (Map.Entry<String, By> entry : locators.entrySet()) {
+            specs.add(Map.of("name", entry.getKey(), "locator", Locators.toScriptArgument(entry.getValue())));
+        }
+        Map<String, Object> raw = (Map<String, Object>)
+                ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, specs, new ArrayList<>(attributes));
+
+        Map<String, ElementState> elements = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> rawElements = (Map<String, Map<String, Object>>) raw.get("elements");
+        for (Map.Entry<String, Map<String, Object>> entry : rawElements.entrySet()) {
+            Map<String, Object> state = entry.getValue();
+            int count = ((Number) state.get("count")).intValue();
+            elements.put(entry.getKey(), count == 0 ? ElementState.ABSENT : new ElementState(count,
+                    Boolean.TRUE.equals(state.get("displayed")),
+                    Boolean.TRUE.equals(state.get("enabled")),
+                    (String) state.get("text"),
+                    (Map<String, String>) state.get("attributes")));
+        }
+        return new PageSnapshot((String) raw.get("title"), (String) raw.get("url"), elements);
+    }
+
+    /**
+     * State of a locator declared when capturing; absent if nothing matched.
+     */
+    public ElementState get(String name) {
+        ElementState state = elements.get(name);
+        if (state == null) {
+            throw new IllegalArgumentException("No locator named '" + name + "' in this snapshot: " + elements.keySet());
+        }
+        return state;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public String toString() {
+        return "PageSnapshot{" + url + ", " + elements + "}";
+    }
+}
@@ -0,0 +1,120 @@
+package com.cartify.pages.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * PageStability: Waits until the page has actually settled instead of sleeping.
+ * A page is settled when no fetch/XHR is in flight, the document has loaded,
+ * no finite CSS animation or transition is running and the DOM has not
+ * mutated for a quiet window. The wait runs in the browser as one async
+ * script and always stops at a hard cap.
+ */
+public class PageStability {
+
+    public static final Duration DEFAULT_QUIET_WINDOW = Duration.ofMillis(300);
+    public static final Duration DEFAULT_CAP = Duration.ofSeconds(10);
+
+    /** Must stay below the session script timeout set by DriverFactory. */
+    private static final Duration MAX_CAP = Duration.ofSeconds(25);
+
+    /**
+     * Tracks in-flight requests, the last DOM mutation and the mutation epoch
+     * (see MutationEpoch). Registered on every new document at session creation;
+     * installed lazily if a page was loaded without it.
+     */
+    public static final String INSTRUMENTATION_SCRIPT = ""
+            + "(function () {"
+            + "  if (window.__cartifyStability) { return; }"
+            + "  var s = window.__cartifyStability = {"
+            + "    inflight: 0, lastMutation: Date.now(), document: String(performance.timeOrigin), epoch: 0 };"
+            + "  var done = function () { s.inflight = Math.max(0, s.inflight - 1); };"
+            + "  if (window.fetch) {"
+            + "    var origFetch = window.fetch;"
+            + "    window.fetch = function () {"
+            + "      s.inflight++;"
+            + "      return origFetch.apply(this, arguments).then("
+            + "        function (r) { done(); return r; }, function (e) { done(); throw e; });"
+            + "    };"
+            + "  }"
+            + "  var origSend = XMLHttpRequest.prototype.send;"
+            + "  XMLHttpRequest.prototype.send = function () {"
+            + "    s.inflight++;"
+            + "    this.addEventListener('loadend', done);"
+            + "    return origSend.apply(this, arguments);"
+            + "  };"
+            + "  new MutationObserver(function (records) {"
+            + "    s.lastMutation = Date.now();"
+            + "    if (records.some(function (r) { return r.type === 'childList'; })) { s.epoch++; }"
+            + "  })"
+            + "    .observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "})();";
+
+    private static final String WAIT_SCRIPT = INSTRUMENTATION_SCRIPT
+            + "var quiet = arguments[0], cap = arguments[1], callback = arguments[arguments.length - 1];"
+            + "var s = window.__cartifyStability, start = Date.now();"
+            + "function busyReason() {"
+            + "  if (s.inflight > 0) { return 'network'; }"
+            + "  if (document.readyState !== 'complete') { return 'loading'; }"
+            + "  if (document.getAnimations && document.getAnimations().some(function (a) {"
+            + "    return a.playState === 'running' && a.effect && a.effect.getTiming().iterations !== Infinity;"
+            + "  })) { return 'animation'; }"
+            + "  if (Date.now() - s.lastMutation < quiet) { return 'dom'; }"
+            + "  return null;"
+            + "}"
+            + "(function check() {"
+            + "  var reason = busyReason(), waited = Date.now() - start;"
+            + "  if (!reason || waited >= cap) {"
+            + "    callback({ settled: !reason, waited: waited, reason: reason, epoch: " + MutationEpoch.EXPRESSION + " });"
+            + "  } else {"
+            + "    setTimeout(check, 50);"
+            + "  }"
+            + "})();";
+
+    private final WebDriver driver;
+
+    public PageStability(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public StabilityResult waitForStable() {
+        return waitForStable(DEFAULT_QUIET_WINDOW, DEFAULT_CAP);
+    }
+
+    /**
+     * Blocks until the page settles or the cap is reached, whichever comes first.
+     * A navigation mid-wait restarts the check on the new document within the same cap.
+     */
+    public StabilityResult waitForStable(Duration quietWindow, Duration cap) {
+        long capMillis = Math.min(cap.toMillis(), MAX_CAP.toMillis());
+        long start = System.nanoTime();
+        while (true) {
+            long remaining = capMillis - elapsedMillis(start);
+            if (remaining <= 0) {
+                return new StabilityResult(false, Duration.ofMillis(elapsedMillis(start)), "navigation");
+            }
+            try {
+                Object raw = ((JavascriptExecutor) driver)
+                        .executeAsyncScript(WAIT_SCRIPT, quietWindow.toMillis(), remaining);
+                Map<?, ?> result = (Map<?, ?>) raw;
+                MutationEpoch.observe(driver, result.get("epoch"));
+                boolean settled = Boolean.TRUE.equals(result.get("settled"));
+                return new StabilityResult(settled, Duration.ofMillis(elapsedMillis(start)),
+                        settled ? null : String.valueOf(result.get("reason")));
+            } catch (WebDriverException e) {
+                // "document unloaded while waiting for result": check the new document
+                if (!String.valueOf(e.getMessage()).contains("unloaded")) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
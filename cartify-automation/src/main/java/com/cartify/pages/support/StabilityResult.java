@@ -0,0 +1,43 @@
+package com.cartify.pages.support;
+
+import java.time.Duration;
+
+/**
+ * StabilityResult: Outcome of a PageStability wait.
+ * Reports how long the wait actually took and, if the cap was hit,
+ * what was still keeping the page busy.
+ */
+public final class StabilityResult {
+
+    private final boolean settled;
+    private final Duration waited;
+    private final String busyReason;
+
+    StabilityResult(boolean settled, Duration waited, String busyReason) {
+        this.settled = settled;
+        this.waited = waited;
+        this.busyReason = busyReason;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public Duration getWaited() {
+        return waited;
+    }
+
+    /**
+     * network, loading, animation or dom; null when the page settled.
+     */
+    public String getBusyReason() {
+        return busyReason;
+    }
+
+    @Override
+    public String toString() {
+        return settled
+                ? "Page settled after " + waited.toMillis() + " ms"
+                : "Page still busy (" + busyReason + ") after " + waited.toMillis() + " ms";
+    }
+}
@@ -0,0 +1,128 @@
+package com.cartify.reporting;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DurationStore: Each test's historical duration, kept across runs for ShardPlanner.
+ * A test's duration is a moving average, so one slow run only shifts it a little.
+ * Updated from a results stream: by CustomTestListener after an unsharded run and
+ * by ResultMerger after a sharded one. Skipped tests are left out, since they did not run.
+ * Durations are per method; ShardPlanner adds them up per class.
+ *
+ * Settings (system properties):
+ * cartify.durations.file - the store (default .cartify/test-durations.json in the working directory;
+ *                          the Maven build passes the module's own, see cartify.durations.file in the pom)
+ */
+public final class DurationStore {
+
+    // Weight of the newest run in the moving average
+    private static final double NEW_RUN_WEIGHT = 0.3;
+
+    private final Path file;
+    // class#method -> {"ms": average, "runs": count}
+    private final Map<String, Map<String, Object>> tests = new TreeMap<>();
+
+    private DurationStore(Path file) {
+        this.file = file;
+    }
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("cartify.durations.file", ".cartify/test-durations.json"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static DurationStore load(Path file) {
+        DurationStore store = new DurationStore(file);
+        if (!Files.exists(file)) {
+            return store;
+        }
+        try {
+            Map<String, Object> content = new Json().toType(Files.readString(file, StandardCharsets.UTF_8),
+                    Json.MAP_TYPE);
+            Object stored = content != null ? content.get("tests") : null;
+            if (stored instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) stored).entrySet()) {
+                    if (entry.getValue() instanceof Map) {
+                        store.tests.put(String.valueOf(entry.getKey()),
+                                new LinkedHashMap<>((Map<String, Object>) entry.getValue()));
+                    }
+                }
+            }
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read test durations " + file, e);
+        }
+    }
+
+    public static String key(String className, String testName) {
+        return className + "#" + testName;
+    }
+
+    /**
+     * The average duration of a test, or -1 when it has never run.
+     */
+    public long getMillis(String key) {
+        Map<String, Object> test = tests.get(key);
+        return test != null ? ((Number) test.get("ms")).longValue() : -1;
+    }
+
+    /**
+     * Average durations of every recorded test, keyed by class#method.
+     */
+    public Map<String, Long> getAll() {
+        Map<String, Long> all = new TreeMap<>();
+        for (String key : tests.keySet()) {
+            all.put(key, getMillis(key));
+        }
+        return all;
+    }
+
+    /**
+     * Records every test of a results stream. Invocations of the same method,
+     * e.g. one per data provider row, are added up into one duration for the run.
+     */
+    public void recordAll(Path resultsFile) throws IOException {
+        Map<String, Long> run = new LinkedHashMap<>();
+        ResultSink.read(resultsFile, record -> {
+            if (record.getStatus() != ResultRecord.Status.SKIP) {
+                run.merge(key(record.getClassName(), record.getTestName()), record.getDurationMillis(), Long::sum);
+            }
+        });
+        run.forEach(this::update);
+    }
+
+    private void update(String key, long duration) {
+        Map<String, Object> test = tests.computeIfAbsent(key, k -> new LinkedHashMap<>());
+        long previous = test.containsKey("ms") ? ((Number) test.get("ms")).longValue() : -1;
+        long runs = test.containsKey("runs") ? ((Number) test.get("runs")).longValue() : 0;
+        test.put("ms", previous < 0 ? duration
+                : Math.round(NEW_RUN_WEIGHT * duration + (1 - NEW_RUN_WEIGHT) * previous));
+        test.put("runs", runs + 1);
+    }
+
+    // Written to a temp file and swapped in, so a reader never sees half a store
+    public void save() {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("tests", tests);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "test-durations", ".tmp");
+            Files.writeString(temp, new Json().toJson(content), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write test durations " + file, e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.cartify.reporting;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+/**
+ * ReportEntry: One test's page in the StreamingReport. Log lines go straight
+ * to the test's own HTML file, so only an open writer is held while the test
+ * runs; finish() closes the page and adds the test to the report index.
+ * Details are HTML, as with ExtentTest.log.
+ */
+public final class ReportEntry {
+
+    private final StreamingReport report;
+    private final int id;
+    private final String name;
+    private final String className;
+    private final Path file;
+    private final long startMillis = System.currentTimeMillis();
+    private BufferedWriter writer;
+
+    ReportEntry(StreamingReport report, int id, String name, String className, Path file, BufferedWriter writer) {
+        this.report = report;
+        this.id = id;
+        this.name = name;
+        this.className = className;
+        this.file = file;
+        this.writer = writer;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Adds a line to the page; level is a status such as INFO, PASS, FAIL or SKIP.
+     */
+    public synchronized void log(String level, String details) {
+        write("<div class=\"log " + StreamingReport.escape(level) + "\"><span class=\"level\">"
+                + StreamingReport.escape(level) + "</span>" + details + "</div>");
+    }
+
+    public void fail(Throwable throwable) {
+        StringWriter trace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(trace));
+        log("FAIL", "<pre>" + StreamingReport.escape(trace.toString()) + "</pre>");
+    }
+
+    /**
+     * Links the image file instead of inlining it; the browser loads it when scrolled into view.
+     */
+    public void addScreenshot(Path image) {
+        String link = StreamingReport.escape(report.link(file.getParent(), image));
+        log("INFO", "<a href=\"" + link + "\"><img class=\"screenshot\" loading=\"lazy\" src=\"" + link + "\"></a>");
+    }
+
+    /**
+     * Closes the page and indexes the test. Later calls are ignored.
+     */
+    public void finish(String status) {
+        long durationMillis = System.currentTimeMillis() - startMillis;
+        synchronized (this) {
+            if (writer == null) {
+                return;
+            }
+            write("<p class=\"" + StreamingReport.escape(status) + "\">" + StreamingReport.escape(status) + " in "
+                    + Step.format(durationMillis) + "</p></body></html>");
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.out.println("Failed to close report page " + file + ": " + e.getMessage());
+            }
+            writer = null;
+        }
+        report.index(id, name, className, status, startMillis, durationMillis, file);
+    }
+
+    private void write(String html) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(html);
+            writer.newLine();
+        } catch (IOException e) {
+            System.out.println("Failed to write report page " + file + ": " + e.getMessage());
+        }
+    }
+}
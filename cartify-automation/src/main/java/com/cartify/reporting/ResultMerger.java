@@ -0,0 +1,199 @@
+package com.cartify.reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ResultMerger: Combines the results streams of several shards (see Shard) into
+ * one test-results.jsonl, summary_report.txt, bug_report.txt and Extent report.
+ * Each shard's stream is read once; tests are tagged with their shard as the
+ * Extent device, so a failure can be traced back to the JVM that ran it. Each
+ * merged test shows its step timeline, failure screenshot and flight recording,
+ * and links to its page in the shard's own report for the full log.
+ * The merged durations also go into the DurationStore, for ShardPlanner.
+ *
+ * Usage: ResultMerger [-o output-dir] [shard directory or results file ...]
+ * Directories are searched for test-results.jsonl. Without inputs, target/shards
+ * is merged into target/merged. Run from Maven with the merge-results profile.
+ */
+public final class ResultMerger {
+
+    private static final String RESULTS_FILE = "test-results.jsonl";
+
+    private ResultMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get("target", "merged");
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add(Paths.get("target", "shards"));
+        }
+        Map<ResultRecord.Status, Integer> totals = merge(findResults(inputs, output), output);
+        System.out.println("Merged results: " + totals + " written to " + output.toAbsolutePath());
+    }
+
+    /**
+     * Merges the results files into the output directory.
+     *
+     * @return the number of tests per status
+     */
+    public static Map<ResultRecord.Status, Integer> merge(List<Path> resultsFiles, Path output) throws IOException {
+        if (resultsFiles.isEmpty()) {
+            throw new IllegalArgumentException("No " + RESULTS_FILE + " to merge");
+        }
+        Files.createDirectories(output);
+        ExtentReports extent = createExtent(output.resolve("extent-report.html"), resultsFiles);
+        Path merged = output.resolve(RESULTS_FILE);
+        try (ResultSink sink = ResultSink.create(merged)) {
+            for (Path file : resultsFiles) {
+                String shard = shardOf(file);
+                System.out.println("Merging shard " + shard + ": " + file);
+                try {
+                    ResultSink.read(file, record -> {
+                        try {
+                            sink.append(record);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        addTest(extent, record, shard);
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+        extent.flush();
+        DurationStore durations = DurationStore.load(DurationStore.defaultFile());
+        durations.recordAll(merged);
+        durations.save();
+        return ResultReports.write(merged, output.resolve("summary_report.txt"), output.resolve("bug_report.txt"));
+    }
+
+    // The output directory is left out, in case it sits inside one of the inputs
+    static List<Path> findResults(List<Path> inputs, Path output) throws IOException {
+        Path excluded = output.toAbsolutePath();
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isRegularFile(input)) {
+                files.add(input);
+            } else if (Files.isDirectory(input)) {
+                try (Stream<Path> found = Files.walk(input, 3)) {
+                    files.addAll(found.filter(path -> path.getFileName().toString().equals(RESULTS_FILE))
+                            .filter(path -> !path.toAbsolutePath().startsWith(excluded))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                System.out.println("Skipping missing input " + input);
+            }
+        }
+        return files;
+    }
+
+    // target/shards/<id>/test-results.jsonl is shard <id>; any other file is named after itself
+    private static String shardOf(Path file) {
+        Path parent = file.toAbsolutePath().getParent();
+        return file.getFileName().toString().equals(RESULTS_FILE) && parent != null && parent.getFileName() != null
+                ? parent.getFileName().toString() : file.getFileName().toString();
+    }
+
+    // ============================================
+    // Extent report
+    // ============================================
+
+    private static ExtentReports createExtent(Path file, List<Path> resultsFiles) {
+        ExtentSparkReporter htmlReporter = new ExtentSparkReporter(file.toString());
+        htmlReporter.config().setTheme(Theme.DARK);
+        htmlReporter.config().setDocumentTitle("Cartify Automation Report");
+        htmlReporter.config().setEncoding("utf-8");
+        htmlReporter.config().setReportName("Automation Test Results (merged)");
+
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(htmlReporter);
+        // Start and end times come from the results, not from when the merge ran
+        extent.setReportUsesManualConfiguration(true);
+        extent.setSystemInfo("Shards", resultsFiles.stream().map(ResultMerger::shardOf)
+                .collect(Collectors.joining(", ")));
+        return extent;
+    }
+
+    private static void addTest(ExtentReports extent, ResultRecord record, String shard) {
+        ExtentTest test = extent.createTest(record.getTestName());
+        String className = record.getClassName();
+        if (className != null) {
+            test.assignCategory(className.substring(className.lastIndexOf('.') + 1));
+        }
+        test.assignDevice(shard);
+        if (!record.getParameters().isEmpty()) {
+            test.info("Parameters: " + StreamingReport.escape(String.join(", ", record.getParameters())));
+        }
+        switch (record.getStatus()) {
+            case PASS:
+                test.pass("Test Passed");
+                break;
+            case FAIL:
+                test.fail("Test Failed");
+                break;
+            default:
+                test.skip("Test Skipped");
+                break;
+        }
+        if (record.getException() != null) {
+            StringBuilder trace = new StringBuilder(record.getException());
+            for (String frame : record.getStackTrace()) {
+                trace.append("\n\tat ").append(frame);
+            }
+            String details = "<pre>" + StreamingReport.escape(trace.toString()) + "</pre>";
+            if (record.getStatus() == ResultRecord.Status.FAIL) {
+                test.fail(details);
+            } else {
+                test.info(details);
+            }
+        }
+        addArtifacts(test, record);
+        test.getModel().setStartTime(new Date(record.getStartMillis()));
+        test.getModel().setEndTime(new Date(record.getStartMillis() + record.getDurationMillis()));
+    }
+
+    // Artifacts stay where the shard wrote them; the merged report links to them
+    private static void addArtifacts(ExtentTest test, ResultRecord record) {
+        if (!record.getSteps().isEmpty()) {
+            test.info("Step timeline<pre>" + StreamingReport.escape(String.join("\n", record.getSteps())) + "</pre>");
+        }
+        if (record.getScreenshot() != null) {
+            test.addScreenCaptureFromPath(record.getScreenshot());
+        }
+        if (record.getFlightRecording() != null) {
+            test.info(link("Flight recording", record.getFlightRecording()));
+        }
+        if (record.getReport() != null) {
+            test.info(link("Full log in the shard report", record.getReport()));
+        }
+    }
+
+    private static String link(String text, String file) {
+        return "<a href='" + Paths.get(file).toUri() + "'>" + StreamingReport.escape(text) + "</a>";
+    }
+}
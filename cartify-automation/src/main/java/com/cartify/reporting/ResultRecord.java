@@ -0,0 +1,205 @@
+package com.cartify.reporting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultRecord: The compact outcome of one test, one line of the results stream.
+ * Holds plain strings and numbers only, so nothing of the test run (parameters,
+ * throwables, attributes) is kept alive once the record is written.
+ * Report artifacts (the test's page in its own report, the failure screenshot
+ * and flight recording) are kept as absolute paths, so a merged report can
+ * link back to them.
+ */
+public final class ResultRecord {
+
+    public enum Status { PASS, FAIL, SKIP }
+
+    private static final int MAX_STACK_FRAMES = 100;
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final String testName;
+    private final String className;
+    private final Status status;
+    private final long startMillis;
+    private final long durationMillis;
+    private final String thread;
+    private final List<String> parameters;
+    private final String exception;
+    private final List<String> stackTrace;
+    private final String report;
+    private final String screenshot;
+    private final String flightRecording;
+    private final List<String> steps;
+
+    public ResultRecord(String testName, String className, Status status, long startMillis, long durationMillis,
+                        String thread, List<String> parameters, String exception, List<String> stackTrace) {
+        this(testName, className, status, startMillis, durationMillis, thread, parameters, exception, stackTrace,
+                null, null, null, null);
+    }
+
+    public ResultRecord(String testName, String className, Status status, long startMillis, long durationMillis,
+                        String thread, List<String> parameters, String exception, List<String> stackTrace,
+                        String report, String screenshot, String flightRecording, List<String> steps) {
+        this.testName = testName;
+        this.className = className;
+        this.status = status;
+        this.startMillis = startMillis;
+        this.durationMillis = durationMillis;
+        this.thread = thread;
+        this.parameters = parameters != null ? parameters : Collections.emptyList();
+        this.exception = exception;
+        this.stackTrace = stackTrace != null ? stackTrace : Collections.emptyList();
+        this.report = report;
+        this.screenshot = screenshot;
+        this.flightRecording = flightRecording;
+        this.steps = steps != null ? steps : Collections.emptyList();
+    }
+
+    /**
+     * Parameters as short strings, for records built from a running test.
+     */
+    public static List<String> describeParameters(Object[] parameters) {
+        List<String> described = new ArrayList<>();
+        if (parameters != null) {
+            for (Object parameter : parameters) {
+                String text = String.valueOf(parameter);
+                described.add(text.length() > MAX_PARAMETER_LENGTH
+                        ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text);
+            }
+        }
+        return described;
+    }
+
+    /**
+     * The first frames of a throwable's stack trace as strings.
+     */
+    public static List<String> describeStackTrace(Throwable throwable) {
+        List<String> frames = new ArrayList<>();
+        if (throwable != null) {
+            StackTraceElement[] elements = throwable.getStackTrace();
+            for (int i = 0; i < elements.length && i < MAX_STACK_FRAMES; i++) {
+                frames.add(elements[i].toString());
+            }
+        }
+        return frames;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * The failure as Throwable.toString() renders it, or null.
+     */
+    public String getException() {
+        return exception;
+    }
+
+    public List<String> getStackTrace() {
+        return stackTrace;
+    }
+
+    /**
+     * The report file that holds the test's full log, or null.
+     */
+    public String getReport() {
+        return report;
+    }
+
+    /**
+     * The failure screenshot, or null.
+     */
+    public String getScreenshot() {
+        return screenshot;
+    }
+
+    /**
+     * The flight recording's recording.json, or null.
+     */
+    public String getFlightRecording() {
+        return flightRecording;
+    }
+
+    /**
+     * The test's step timeline, one indented "name: duration" line per step.
+     */
+    public List<String> getSteps() {
+        return steps;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("test", testName);
+        map.put("class", className);
+        map.put("status", status.name());
+        map.put("start", startMillis);
+        map.put("durationMs", durationMillis);
+        map.put("thread", thread);
+        if (!parameters.isEmpty()) {
+            map.put("parameters", parameters);
+        }
+        if (exception != null) {
+            map.put("exception", exception);
+            map.put("stackTrace", stackTrace);
+        }
+        if (report != null) {
+            map.put("report", report);
+        }
+        if (screenshot != null) {
+            map.put("screenshot", screenshot);
+        }
+        if (flightRecording != null) {
+            map.put("flightRecording", flightRecording);
+        }
+        if (!steps.isEmpty()) {
+            map.put("steps", steps);
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ResultRecord fromMap(Map<String, Object> map) {
+        return new ResultRecord(
+                (String) map.get("test"),
+                (String) map.get("class"),
+                Status.valueOf((String) map.get("status")),
+                ((Number) map.getOrDefault("start", 0L)).longValue(),
+                ((Number) map.getOrDefault("durationMs", 0L)).longValue(),
+                (String) map.get("thread"),
+                (List<String>) map.get("parameters"),
+                (String) map.get("exception"),
+                (List<String>) map.get("stackTrace"),
+                (String) map.get("report"),
+                (String) map.get("screenshot"),
+                (String) map.get("flightRecording"),
+                (List<String>) map.get("steps"));
+    }
+}
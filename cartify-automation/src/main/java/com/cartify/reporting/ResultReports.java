@@ -0,0 +1,109 @@
+package com.cartify.reporting;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ResultReports: Derives summary_report.txt and bug_report.txt from a results
+ * stream in a single pass. Each record is written out as it is read, so the
+ * totals close the summary rather than open it.
+ */
+public final class ResultReports {
+
+    private ResultReports() {
+    }
+
+    /**
+     * Writes the summary and, if any test failed, the bug report.
+     *
+     * @return the number of tests per status
+     */
+    public static Map<ResultRecord.Status, Integer> write(Path results, Path summaryReport, Path bugReport)
+            throws IOException {
+        Map<ResultRecord.Status, Integer> totals = new EnumMap<>(ResultRecord.Status.class);
+        for (ResultRecord.Status status : ResultRecord.Status.values()) {
+            totals.put(status, 0);
+        }
+        try (BufferedWriter summary = Files.newBufferedWriter(summaryReport, StandardCharsets.UTF_8);
+             BugReportWriter bugs = new BugReportWriter(bugReport)) {
+            line(summary, "Test Execution Summary Report");
+            line(summary, "=============================");
+            line(summary, "");
+            line(summary, "Detailed Results:");
+            try {
+                ResultSink.read(results, record -> {
+                    totals.merge(record.getStatus(), 1, Integer::sum);
+                    try {
+                        line(summary, "[" + record.getStatus() + "] " + record.getTestName()
+                                + " (" + record.getDurationMillis() + " ms)");
+                        if (record.getStatus() == ResultRecord.Status.FAIL) {
+                            bugs.write(record);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            int total = totals.values().stream().mapToInt(Integer::intValue).sum();
+            line(summary, "");
+            line(summary, "Total Tests Run: " + total);
+            line(summary, "Passed: " + totals.get(ResultRecord.Status.PASS));
+            line(summary, "Failed: " + totals.get(ResultRecord.Status.FAIL));
+            line(summary, "Skipped: " + totals.get(ResultRecord.Status.SKIP));
+        }
+        return totals;
+    }
+
+    private static void line(BufferedWriter writer, String text) throws IOException {
+        writer.write(text);
+        writer.newLine();
+    }
+
+    // Only creates the bug report once there is a failure to put in it
+    private static final class BugReportWriter implements AutoCloseable {
+
+        private final Path file;
+        private BufferedWriter writer;
+
+        BugReportWriter(Path file) {
+            this.file = file;
+        }
+
+        void write(ResultRecord record) throws IOException {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                line(writer, "Bug Report");
+                line(writer, "==========");
+            }
+            line(writer, "Test Case: " + record.getTestName());
+            line(writer, "Class: " + record.getClassName());
+            if (!record.getParameters().isEmpty()) {
+                line(writer, "Parameters: " + record.getParameters());
+            }
+            line(writer, "Exception: " + record.getException());
+
+            // Stack Trace
+            line(writer, "Stack Trace:");
+            for (String frame : record.getStackTrace()) {
+                line(writer, "\tat " + frame);
+            }
+            line(writer, "--------------------------------------------------");
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.cartify.reporting;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ResultSink: Appends one JSON line per finished test to the results stream.
+ * Each record is on disk as soon as its test ends, so a crashed JVM still
+ * leaves the results so far, and memory does not grow with the suite.
+ * Safe to share between parallel listener threads.
+ *
+ * Settings (system properties):
+ * cartify.results.file - results stream (default target/test-results.jsonl, see Shard)
+ */
+public final class ResultSink implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Json json = new Json();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private ResultSink(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("cartify.results.file", Shard.pathString("target/test-results.jsonl")));
+    }
+
+    /**
+     * Starts a new results stream, replacing the one from an earlier run.
+     */
+    public static ResultSink create(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new ResultSink(file, FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the record as one line. Records from parallel threads never interleave.
+     */
+    public void append(ResultRecord record) throws IOException {
+        byte[] line = toLine(record.toMap());
+        synchronized (this) {
+            if (line.length > buffer.capacity()) {
+                buffer = ByteBuffer.allocateDirect(line.length);
+            }
+            buffer.clear();
+            buffer.put(line);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Forces the records written so far to disk, e.g. before reading them back.
+     */
+    public synchronized void flush() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads a results stream record by record, without loading it as a whole.
+     */
+    public static void read(Path file, Consumer<ResultRecord> consumer) throws IOException {
+        Json json = new Json();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    Map<String, Object> map = json.toType(line, Json.MAP_TYPE);
+                    consumer.accept(ResultRecord.fromMap(map));
+                }
+            }
+        }
+    }
+
+    private byte[] toLine(Map<String, Object> map) {
+        StringWriter writer = new StringWriter();
+        try (JsonOutput output = json.newOutput(writer)) {
+            output.setPrettyPrint(false).write(map);
+        }
+        writer.append('\n');
+        return writer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,188 @@
+package com.cartify.reporting;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ScreenshotService: Takes screenshots without blocking the test thread on disk I/O.
+ * Only grabbing the PNG bytes happens on the caller's thread, since the driver
+ * belongs to it; downscaling, re-encoding and writing run on a small bounded
+ * executor. The destination path is returned at once, and flush() waits for
+ * the pending writes, e.g. before the report is written.
+ * Everything stays in memory until the final file is written, so no temp files are left.
+ *
+ * Settings (system properties):
+ * cartify.screenshots.dir     - output directory (default target/screenshots)
+ * cartify.screenshots.format  - png or jpg (default png)
+ * cartify.screenshots.scale   - downscale factor, e.g. 0.5 (default 1.0)
+ * cartify.screenshots.quality - jpg quality between 0 and 1 (default 0.8)
+ * cartify.screenshots.threads - writer threads (default 2)
+ */
+public final class ScreenshotService {
+
+    private static final int QUEUE_CAPACITY = 16;
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final ScreenshotService INSTANCE = new ScreenshotService(
+            Paths.get(System.getProperty("cartify.screenshots.dir", Shard.pathString("target/screenshots"))),
+            System.getProperty("cartify.screenshots.format", "png").toLowerCase(Locale.ROOT),
+            Double.parseDouble(System.getProperty("cartify.screenshots.scale", "1.0")),
+            Float.parseFloat(System.getProperty("cartify.screenshots.quality", "0.8")),
+            Integer.getInteger("cartify.screenshots.threads", 2));
+
+    private final Path directory;
+    private final boolean jpeg;
+    private final double scale;
+    private final float quality;
+    private final ThreadPoolExecutor writers;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    ScreenshotService(Path directory, String format, double scale, float quality, int threads) {
+        this.directory = directory.toAbsolutePath();
+        this.jpeg = format.equals("jpg") || format.equals("jpeg");
+        this.scale = scale > 0 && scale < 1.0 ? scale : 1.0;
+        this.quality = Math.max(0f, Math.min(1f, quality));
+        AtomicInteger threadCount = new AtomicInteger();
+        // A full queue makes the caller write the screenshot itself rather than dropping it
+        this.writers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.writers.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "screenshot-flush"));
+    }
+
+    public static ScreenshotService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Screenshot named after e.g. the failing test, made unique with a timestamp and the thread id.
+     */
+    public Path capture(WebDriver driver, String name) {
+        String timestamp = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
+        return captureAs(driver, name + "_" + timestamp + "_" + Thread.currentThread().getId()
+                + "_" + sequence.incrementAndGet());
+    }
+
+    /**
+     * Screenshot with a fixed file name (without extension); an existing file is replaced.
+     *
+     * @return where the file will be once the write completes
+     */
+    public Path captureAs(WebDriver driver, String fileName) {
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        Path target = directory.resolve(fileName + (jpeg ? ".jpg" : ".png"));
+        pending.incrementAndGet();
+        writers.execute(() -> {
+            try {
+                write(png, target);
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    synchronized (pending) {
+                        pending.notifyAll();
+                    }
+                }
+            }
+        });
+        return target;
+    }
+
+    /**
+     * Waits for the screenshots still being written; gives up after 30 seconds.
+     */
+    public void flush() {
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT.toNanos();
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    System.out.println(pending.get() + " screenshot(s) still being written after "
+                            + FLUSH_TIMEOUT.toSeconds() + " s");
+                    return;
+                }
+                try {
+                    pending.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write(byte[] png, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            Files.write(target, jpeg || scale < 1.0 ? encode(png) : png);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Failed to write screenshot " + target + ": " + e.getMessage());
+        }
+    }
+
+    private byte[] encode(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new MemoryCacheImageInputStream(new ByteArrayInputStream(png)));
+        if (image == null) {
+            return png;
+        }
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        // JPEG has no alpha channel, so it is drawn onto an RGB image even when not scaling
+        BufferedImage output = new BufferedImage(width, height,
+                jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = output.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream stream = new MemoryCacheImageOutputStream(bytes)) {
+            if (jpeg) {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+                try {
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(quality);
+                    writer.setOutput(stream);
+                    writer.write(null, new IIOImage(output, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            } else {
+                ImageIO.write(output, "png", stream);
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
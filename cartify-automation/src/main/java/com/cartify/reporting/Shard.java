@@ -0,0 +1,45 @@
+package com.cartify.reporting;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Shard: Identifies this JVM when the suite is split across JVMs or machines.
+ * A shard writes its reports and results under target/shards/<id>/ instead
+ * of target/, so shards never overwrite each other and each one's output can
+ * be collected as a single directory for ResultMerger.
+ *
+ * Settings (system properties):
+ * cartify.shard - shard id, e.g. 1 or a host name (default none: not sharded)
+ */
+public final class Shard {
+
+    private static final String ID = System.getProperty("cartify.shard", "").trim();
+
+    private Shard() {
+    }
+
+    public static boolean isSharded() {
+        return !ID.isEmpty();
+    }
+
+    /**
+     * The shard id, or null when not sharded.
+     */
+    public static String getId() {
+        return isSharded() ? ID : null;
+    }
+
+    /**
+     * Where a default output path goes for this JVM: unchanged when not sharded,
+     * otherwise the same file or directory name in the shard's directory.
+     */
+    public static Path path(String unsharded) {
+        Path path = Paths.get(unsharded);
+        return isSharded() ? Paths.get("target", "shards", ID).resolve(path.getFileName()) : path;
+    }
+
+    public static String pathString(String unsharded) {
+        return path(unsharded).toString();
+    }
+}
@@ -0,0 +1,328 @@
+package com.cartify.reporting;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * ShardPlanner: Splits a TestNG suite into N shards that should take about as
+ * long as each other. Test classes are the unit, since tests within a class may
+ * depend on each other; a class is estimated as the sum of its methods' durations
+ * in the DurationStore. Classes are handed out longest first, each to the shard
+ * with the least estimated time so far (LPT scheduling).
+ *
+ * A class with no history is estimated as the median of the classes that have
+ * one, or cartify.planner.defaultMs when nothing has run yet. Methods added to a
+ * class that has history count for nothing until they have run once.
+ *
+ * Writes shard-1.xml ... shard-N.xml, each a copy of the suite (listeners,
+ * parameters, test attributes) with only its own classes. Run one with
+ * mvn test -Dcartify.shard=2 -Dcartify.suite=target/shard-plan/shard-2.xml
+ *
+ * Usage: ShardPlanner -n shards [-s suite.xml] [-o output-dir] [-d durations-file]
+ *
+ * Settings (system properties):
+ * cartify.planner.defaultMs - estimate for a class when there is no history at all (default 60000)
+ */
+public final class ShardPlanner {
+
+    private static final String TESTNG_DTD = "https://testng.org/testng-1.0.dtd";
+    private static final long DEFAULT_CLASS_MILLIS = Long.getLong("cartify.planner.defaultMs", 60_000L);
+
+    private ShardPlanner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int shards = 2;
+        Path suite = Paths.get("testng.xml");
+        Path output = Paths.get("target", "shard-plan");
+        Path durations = DurationStore.defaultFile();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-n":
+                    shards = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-s":
+                    suite = Paths.get(args[i + 1]);
+                    break;
+                case "-o":
+                    output = Paths.get(args[i + 1]);
+                    break;
+                case "-d":
+                    durations = Paths.get(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]
+                            + "; usage: ShardPlanner -n shards [-s suite.xml] [-o output-dir] [-d durations-file]");
+            }
+        }
+        List<Bucket> plan = write(suite, DurationStore.load(durations), shards, output);
+        for (Bucket bucket : plan) {
+            System.out.println("Shard " + bucket.getNumber() + ": ~" + Step.format(bucket.getEstimatedMillis())
+                    + " " + bucket.getClassNames());
+        }
+        System.out.println("Classes marked * have no history yet. Shard suites written to "
+                + output.toAbsolutePath());
+    }
+
+    /**
+     * Plans the suite and writes one suite file per shard.
+     *
+     * @return the shards, in order
+     */
+    public static List<Bucket> write(Path suite, DurationStore durations, int shards, Path output)
+            throws IOException {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least one shard is needed, got " + shards);
+        }
+        Document source = parse(suite);
+        List<TestClass> classes = findClasses(source);
+        estimate(classes, durations);
+        List<Bucket> plan = plan(classes, shards);
+
+        Files.createDirectories(output);
+        for (Bucket bucket : plan) {
+            if (bucket.classes.isEmpty()) {
+                System.out.println("Shard " + bucket.getNumber() + " has no test classes; the suite has only "
+                        + classes.size());
+            }
+            writeSuite(source, bucket, shards, output.resolve("shard-" + bucket.getNumber() + ".xml"));
+        }
+        return plan;
+    }
+
+    /**
+     * The test classes of a suite file, in suite order and without repeats.
+     */
+    public static List<String> readClassNames(Path suite) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        for (TestClass testClass : findClasses(parse(suite))) {
+            names.add(testClass.name);
+        }
+        return new ArrayList<>(names);
+    }
+
+    // ============================================
+    // Planning
+    // ============================================
+
+    static List<Bucket> plan(List<TestClass> classes, int shards) {
+        List<Bucket> plan = new ArrayList<>();
+        PriorityQueue<Bucket> emptiest = new PriorityQueue<>(
+                Comparator.comparingLong(Bucket::getEstimatedMillis).thenComparingInt(Bucket::getNumber));
+        for (int i = 1; i <= shards; i++) {
+            Bucket bucket = new Bucket(i);
+            plan.add(bucket);
+            emptiest.add(bucket);
+        }
+        List<TestClass> longestFirst = new ArrayList<>(classes);
+        longestFirst.sort(Comparator.comparingLong((TestClass testClass) -> testClass.estimatedMillis).reversed()
+                .thenComparing(testClass -> testClass.name));
+        for (TestClass testClass : longestFirst) {
+            Bucket bucket = emptiest.poll();
+            bucket.add(testClass);
+            emptiest.add(bucket);
+        }
+        return plan;
+    }
+
+    private static void estimate(List<TestClass> classes, DurationStore durations) {
+        Map<String, Long> byClass = new TreeMap<>();
+        durations.getAll().forEach((key, millis) ->
+                byClass.merge(key.substring(0, key.lastIndexOf('#')), millis, Long::sum));
+
+        List<Long> known = new ArrayList<>();
+        for (TestClass testClass : classes) {
+            Long millis = byClass.get(testClass.name);
+            if (millis != null) {
+                testClass.estimatedMillis = millis;
+                known.add(millis);
+            }
+        }
+        known.sort(null);
+        long fallback = known.isEmpty() ? DEFAULT_CLASS_MILLIS : known.get(known.size() / 2);
+        for (TestClass testClass : classes) {
+            if (testClass.estimatedMillis < 0) {
+                testClass.estimatedMillis = fallback;
+                testClass.fromHistory = false;
+            }
+        }
+    }
+
+    // ============================================
+    // Suite files
+    // ============================================
+
+    private static Document parse(Path suite) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            // The suite's DOCTYPE points at testng.org; it is not needed to read the file
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document document = builder.parse(suite.toFile());
+            removeWhitespace(document.getDocumentElement());
+            return document;
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Failed to read suite " + suite, e);
+        }
+    }
+
+    // The layout is re-indented on output; the original indentation would be written twice
+    private static void removeWhitespace(Node node) {
+        Node child = node.getFirstChild();
+        while (child != null) {
+            Node next = child.getNextSibling();
+            if (child.getNodeType() == Node.TEXT_NODE && child.getTextContent().isBlank()) {
+                node.removeChild(child);
+            } else {
+                removeWhitespace(child);
+            }
+            child = next;
+        }
+    }
+
+    private static List<TestClass> findClasses(Document source) {
+        List<TestClass> classes = new ArrayList<>();
+        NodeList tests = source.getDocumentElement().getElementsByTagName("test");
+        for (int t = 0; t < tests.getLength(); t++) {
+            Element test = (Element) tests.item(t);
+            NodeList classElements = test.getElementsByTagName("class");
+            for (int c = 0; c < classElements.getLength(); c++) {
+                Element classElement = (Element) classElements.item(c);
+                classes.add(new TestClass(classElement.getAttribute("name"), test, classElement));
+            }
+        }
+        return classes;
+    }
+
+    // Keeps the suite's and each test's own settings; only the classes are narrowed down
+    private static void writeSuite(Document source, Bucket bucket, int shards, Path file) throws IOException {
+        try {
+            Document shard = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            Element sourceSuite = source.getDocumentElement();
+            Element suite = (Element) shard.importNode(sourceSuite, false);
+            suite.setAttribute("name", sourceSuite.getAttribute("name")
+                    + " (shard " + bucket.getNumber() + " of " + shards + ")");
+            shard.appendChild(suite);
+            for (Node child = sourceSuite.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child instanceof Element && ((Element) child).getTagName().equals("test")) {
+                    Element test = copyTest(shard, (Element) child, bucket);
+                    if (test != null) {
+                        suite.appendChild(test);
+                    }
+                } else if (child instanceof Element) {
+                    suite.appendChild(shard.importNode(child, true));
+                }
+            }
+
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, TESTNG_DTD);
+            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+            transformer.transform(new DOMSource(shard), new StreamResult(file.toFile()));
+        } catch (ParserConfigurationException | TransformerException e) {
+            throw new IOException("Failed to write shard suite " + file, e);
+        }
+    }
+
+    private static Element copyTest(Document shard, Element sourceTest, Bucket bucket) {
+        Element classes = shard.createElement("classes");
+        for (TestClass testClass : bucket.classes) {
+            if (testClass.test == sourceTest) {
+                classes.appendChild(shard.importNode(testClass.element, true));
+            }
+        }
+        if (!classes.hasChildNodes()) {
+            return null;
+        }
+        Element test = (Element) shard.importNode(sourceTest, false);
+        for (Node child = sourceTest.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && !((Element) child).getTagName().equals("classes")) {
+                test.appendChild(shard.importNode(child, true));
+            }
+        }
+        test.appendChild(classes);
+        return test;
+    }
+
+    // ============================================
+    // Plan model
+    // ============================================
+
+    static final class TestClass {
+
+        private final String name;
+        private final Element test;
+        private final Element element;
+        private long estimatedMillis = -1;
+        private boolean fromHistory = true;
+
+        TestClass(String name, Element test, Element element) {
+            this.name = name;
+            this.test = test;
+            this.element = element;
+        }
+    }
+
+    /**
+     * Bucket: The test classes of one shard, longest first, and their estimated total.
+     */
+    public static final class Bucket {
+
+        private final int number;
+        private final List<TestClass> classes = new ArrayList<>();
+        private long estimatedMillis;
+
+        Bucket(int number) {
+            this.number = number;
+        }
+
+        void add(TestClass testClass) {
+            classes.add(testClass);
+            estimatedMillis += testClass.estimatedMillis;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public long getEstimatedMillis() {
+            return estimatedMillis;
+        }
+
+        /**
+         * Class names; those without history are marked with an asterisk.
+         */
+        public List<String> getClassNames() {
+            List<String> names = new ArrayList<>();
+            for (TestClass testClass : classes) {
+                names.add(testClass.name + (testClass.fromHistory ? "" : "*"));
+            }
+            return names;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.cartify.reporting;
+
+import java.util.Locale;
+
+/**
+ * Step: One timed step of a test, e.g. "RegisterPage.fillAccountInfo: 3.2 s".
+ * Opened with StepTimeline.begin and closed with try-with-resources; a step
+ * opened while another one is still open becomes its child.
+ */
+public final class Step implements AutoCloseable {
+
+    // Handed out when no timeline is running on the thread, so callers never need a null check
+    static final Step NONE = new Step(null, "", 0, 0);
+
+    private final StepTimeline timeline;
+    private final String name;
+    private final int depth;
+    private final long startNanos;
+    private long endNanos;
+    private long childNanos;
+    private boolean unfinished;
+
+    Step(StepTimeline timeline, String name, int depth, long startNanos) {
+        this.timeline = timeline;
+        this.name = name;
+        this.depth = depth;
+        this.startNanos = startNanos;
+    }
+
+    @Override
+    public void close() {
+        if (timeline != null) {
+            timeline.end(this);
+        }
+    }
+
+    void finish(long nanos, boolean closedByParent) {
+        endNanos = nanos;
+        unfinished = closedByParent;
+    }
+
+    void addChild(Step child) {
+        childNanos += child.endNanos - child.startNanos;
+    }
+
+    boolean isOpen() {
+        return endNanos == 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Name of the test the step ran in.
+     */
+    public String getTestName() {
+        return timeline != null ? timeline.getTestName() : "";
+    }
+
+    /**
+     * Nesting level; 0 for steps opened directly by the test.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * When the step started, relative to the start of its test.
+     */
+    public long getStartOffsetMillis() {
+        return timeline != null ? (startNanos - timeline.getStartNanos()) / 1_000_000 : 0;
+    }
+
+    public long getDurationMillis() {
+        if (timeline == null) {
+            return 0;
+        }
+        return ((isOpen() ? System.nanoTime() : endNanos) - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Duration minus the time spent in child steps.
+     */
+    public long getSelfMillis() {
+        return Math.max(0, getDurationMillis() - childNanos / 1_000_000);
+    }
+
+    /**
+     * True if the step was never closed itself, e.g. because the test failed inside it.
+     */
+    public boolean isUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * Durations as the report shows them: "850 ms" below a second, "3.2 s" above.
+     */
+    public static String format(long millis) {
+        return millis < 1_000 ? millis + " ms" : String.format(Locale.ROOT, "%.1f s", millis / 1_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + format(getDurationMillis()) + (unfinished ? " (unfinished)" : "");
+    }
+}
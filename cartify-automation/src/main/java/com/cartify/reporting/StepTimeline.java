@@ -0,0 +1,140 @@
+package com.cartify.reporting;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * StepTimeline: The timed steps of the test running on the current thread.
+ * The reporting listener starts and finishes one per test; page objects and
+ * tests only call begin(), which is a no-op when no timeline is running.
+ * Finished timelines feed a suite-wide list of the slowest steps.
+ */
+public final class StepTimeline {
+
+    private static final ThreadLocal<StepTimeline> CURRENT = new ThreadLocal<>();
+    private static final int SLOWEST_KEPT = 15;
+    private static final Comparator<Step> SLOWEST_FIRST =
+            Comparator.comparingLong(Step::getDurationMillis).reversed();
+    private static final List<Step> SLOWEST = new ArrayList<>();
+
+    private final String testName;
+    private final long startNanos = System.nanoTime();
+    private final List<Step> steps = new ArrayList<>();
+    private final Deque<Step> open = new ArrayDeque<>();
+
+    private StepTimeline(String testName) {
+        this.testName = testName;
+    }
+
+    /**
+     * Starts a timeline for the test about to run on the calling thread.
+     */
+    public static StepTimeline start(String testName) {
+        StepTimeline timeline = new StepTimeline(testName);
+        CURRENT.set(timeline);
+        return timeline;
+    }
+
+    /**
+     * The calling thread's timeline, or null outside a test.
+     */
+    public static StepTimeline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens a step on the calling thread's timeline; close it to record its duration.
+     */
+    public static Step begin(String name) {
+        StepTimeline timeline = CURRENT.get();
+        return timeline != null ? timeline.open(name) : Step.NONE;
+    }
+
+    /**
+     * Ends the calling thread's timeline. Steps still open are closed as unfinished.
+     *
+     * @return the finished timeline, or null if none was started
+     */
+    public static StepTimeline finish() {
+        StepTimeline timeline = CURRENT.get();
+        if (timeline == null) {
+            return null;
+        }
+        CURRENT.remove();
+        if (!timeline.open.isEmpty()) {
+            timeline.closeThrough(timeline.open.peekLast(), true);
+        }
+        timeline.addToSlowest();
+        return timeline;
+    }
+
+    /**
+     * The slowest steps of all finished timelines, slowest first.
+     */
+    public static List<Step> slowest() {
+        synchronized (SLOWEST) {
+            return new ArrayList<>(SLOWEST);
+        }
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * All steps in the order they started; children follow their parent.
+     */
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    private Step open(String name) {
+        Step step = new Step(this, name, open.size(), System.nanoTime());
+        steps.add(step);
+        open.push(step);
+        return step;
+    }
+
+    void end(Step step) {
+        if (step.isOpen() && open.contains(step)) {
+            closeThrough(step, false);
+        }
+    }
+
+    // Closes the open steps down to and including the given one; any inner step
+    // still open at that point was left unclosed by its caller
+    private void closeThrough(Step step, boolean unfinished) {
+        long now = System.nanoTime();
+        Step closed;
+        do {
+            closed = open.pop();
+            closed.finish(now, unfinished || closed != step);
+            Step parent = open.peek();
+            if (parent != null) {
+                parent.addChild(closed);
+            }
+        } while (closed != step);
+    }
+
+    private void addToSlowest() {
+        synchronized (SLOWEST) {
+            SLOWEST.addAll(steps);
+            SLOWEST.sort(SLOWEST_FIRST);
+            if (SLOWEST.size() > SLOWEST_KEPT) {
+                SLOWEST.subList(SLOWEST_KEPT, SLOWEST.size()).clear();
+            }
+        }
+    }
+}
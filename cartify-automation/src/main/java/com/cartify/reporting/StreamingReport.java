@@ -0,0 +1,262 @@
+package com.cartify.reporting;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * StreamingReport: HTML report for very large suites, as an alternative to Extent.
+ * Every test gets its own page, written while the test runs and closed when it
+ * ends, and a line in index.jsonl. Screenshots stay separate files, loaded
+ * lazily. flush() renders the index pages from index.jsonl a page at a time,
+ * so neither the heap nor the page the browser opens grows with the suite.
+ *
+ * Layout of the report directory:
+ * index.html, index-2.html, ...         - all tests, in completion order
+ * failures.html, failures-2.html, ...   - failed tests only
+ * tests/N.html                          - one page per test
+ * index.jsonl                           - one line per test, the source of the index pages
+ *
+ * Settings (system properties):
+ * cartify.report          - streaming selects this report instead of Extent (default extent)
+ * cartify.report.dir      - report directory (default target/report)
+ * cartify.report.pageSize - tests per index page (default 500)
+ */
+public final class StreamingReport {
+
+    private static final boolean ENABLED = "streaming".equalsIgnoreCase(System.getProperty("cartify.report", "extent"));
+    private static final String STYLE = "<style>body{font-family:sans-serif;margin:20px}"
+            + "table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:3px 8px;text-align:left}"
+            + ".PASS{color:#2e7d32}.FAIL{color:#c62828}.SKIP{color:#ef6c00}.level{display:inline-block;width:4em}"
+            + ".log{margin:4px 0}.screenshot{max-width:480px}pre{white-space:pre-wrap}</style>";
+
+    private static StreamingReport instance;
+
+    private final Path directory;
+    private final Path tests;
+    private final Path indexFile;
+    private final int pageSize;
+    private final Json json = new Json();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+    private final BufferedWriter index;
+
+    StreamingReport(Path directory, int pageSize) throws IOException {
+        this.directory = directory.toAbsolutePath();
+        this.tests = this.directory.resolve("tests");
+        this.indexFile = this.directory.resolve("index.jsonl");
+        this.pageSize = Math.max(1, pageSize);
+        Files.createDirectories(tests);
+        // Pages of an earlier, larger run would otherwise stay linked from nowhere
+        deleteFiles(this.directory, ".html");
+        deleteFiles(tests, ".html");
+        this.index = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static synchronized StreamingReport getInstance() {
+        if (instance == null) {
+            try {
+                instance = new StreamingReport(
+                        Paths.get(System.getProperty("cartify.report.dir", Shard.pathString("target/report"))),
+                        Integer.getInteger("cartify.report.pageSize", 500));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to create report directory", e);
+            }
+        }
+        return instance;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Opens the page of a test, or of a suite-level section when className is null.
+     */
+    public ReportEntry startEntry(String name, String className) {
+        int id = sequence.incrementAndGet();
+        Path file = tests.resolve(id + ".html");
+        try {
+            BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>" + escape(name) + "</title>"
+                    + STYLE + "</head><body><p><a href=\"../index.html\">Index</a></p><h2>" + escape(name) + "</h2>"
+                    + (className != null ? "<p>" + escape(className) + "</p>" : ""));
+            writer.newLine();
+            return new ReportEntry(this, id, name, className, file, writer);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create report page " + file, e);
+        }
+    }
+
+    /**
+     * Renders the index pages from everything indexed so far. Safe to call more than once.
+     */
+    public synchronized void flush() {
+        try {
+            index.flush();
+            int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+            renderPages("index", "All tests", entry -> true, total);
+            renderPages("failures", "Failed tests", entry -> "FAIL".equals(entry.get("status")),
+                    counts.getOrDefault("FAIL", 0));
+            System.out.println("Report written to " + directory.resolve("index.html"));
+        } catch (IOException e) {
+            System.out.println("Failed to write report index: " + e.getMessage());
+        }
+    }
+
+    synchronized void index(int id, String name, String className, String status, long startMillis,
+                            long durationMillis, Path file) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", id);
+        entry.put("name", name);
+        if (className != null) {
+            entry.put("class", className);
+        }
+        entry.put("status", status);
+        entry.put("start", Instant.ofEpochMilli(startMillis).toString());
+        entry.put("durationMs", durationMillis);
+        entry.put("file", directory.relativize(file).toString().replace('\\', '/'));
+        counts.merge(status, 1, Integer::sum);
+        try {
+            StringWriter line = new StringWriter();
+            try (JsonOutput output = json.newOutput(line)) {
+                output.setPrettyPrint(false).write(entry);
+            }
+            index.write(line.toString());
+            index.newLine();
+            // Kept on disk per test, so a crashed run still leaves an index to render
+            index.flush();
+        } catch (IOException e) {
+            System.out.println("Failed to index report entry " + name + ": " + e.getMessage());
+        }
+    }
+
+    // Relative when possible, so the report directory can be moved or archived as a whole
+    String link(Path from, Path target) {
+        Path absolute = target.toAbsolutePath();
+        if (absolute.getRoot() != null && absolute.getRoot().equals(from.getRoot())) {
+            return from.relativize(absolute).toString().replace('\\', '/');
+        }
+        return absolute.toUri().toString();
+    }
+
+    static String escape(String text) {
+        return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+
+    // ============================================
+    // Index pages
+    // ============================================
+
+    private void renderPages(String prefix, String title, Predicate<Map<String, Object>> filter, int count)
+            throws IOException {
+        int pages = Math.max(1, (count + pageSize - 1) / pageSize);
+        int page = 1;
+        int rows = 0;
+        BufferedWriter writer = startPage(prefix, title, page, pages);
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, Object> entry = json.toType(line, Json.MAP_TYPE);
+                if (!filter.test(entry)) {
+                    continue;
+                }
+                if (rows == pageSize) {
+                    endPage(writer);
+                    writer = startPage(prefix, title, ++page, pages);
+                    rows = 0;
+                }
+                writeRow(writer, entry);
+                rows++;
+            }
+        } finally {
+            endPage(writer);
+        }
+    }
+
+    private BufferedWriter startPage(String prefix, String title, int page, int pages) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(directory.resolve(pageName(prefix, page)),
+                StandardCharsets.UTF_8);
+        writer.write("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>" + title + "</title>" + STYLE
+                + "</head><body><h2>" + title + "</h2><p>");
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            writer.write("<span class=\"" + escape(count.getKey()) + "\">" + escape(count.getKey()) + ": "
+                    + count.getValue() + "</span> ");
+        }
+        writer.write("| <a href=\"index.html\">All tests</a> <a href=\"failures.html\">Failed tests</a></p>");
+        writePager(writer, prefix, page, pages);
+        // Filters the rows of this page only; the full list is in index.jsonl
+        writer.write("<p><input placeholder=\"Filter this page\" oninput=\"var f=this.value.toLowerCase();"
+                + "document.querySelectorAll('tbody tr').forEach(function(r){r.style.display="
+                + "r.textContent.toLowerCase().indexOf(f)<0?'none':''})\"></p>");
+        writer.write("<table><thead><tr><th>#</th><th>Test</th><th>Class</th><th>Status</th><th>Started</th>"
+                + "<th>Duration</th></tr></thead><tbody>");
+        writer.newLine();
+        return writer;
+    }
+
+    private void writeRow(BufferedWriter writer, Map<String, Object> entry) throws IOException {
+        String status = escape(String.valueOf(entry.get("status")));
+        long duration = ((Number) entry.getOrDefault("durationMs", 0L)).longValue();
+        writer.write("<tr><td>" + entry.get("id") + "</td><td><a href=\"" + escape((String) entry.get("file"))
+                + "\">" + escape((String) entry.get("name")) + "</a></td><td>" + escape((String) entry.get("class"))
+                + "</td><td class=\"" + status + "\">" + status + "</td><td>" + escape((String) entry.get("start"))
+                + "</td><td>" + Step.format(duration) + "</td></tr>");
+        writer.newLine();
+    }
+
+    private void endPage(BufferedWriter writer) throws IOException {
+        try (writer) {
+            writer.write("</tbody></table></body></html>");
+        }
+    }
+
+    private static void writePager(BufferedWriter writer, String prefix, int page, int pages) throws IOException {
+        if (pages == 1) {
+            return;
+        }
+        writer.write("<p>Page ");
+        for (int i = 1; i <= pages; i++) {
+            writer.write(i == page ? "<b>" + i + "</b> " : "<a href=\"" + pageName(prefix, i) + "\">" + i + "</a> ");
+        }
+        writer.write("</p>");
+    }
+
+    private static String pageName(String prefix, int page) {
+        return page == 1 ? prefix + ".html" : prefix + "-" + page + ".html";
+    }
+
+    private static void deleteFiles(Path directory, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(suffix)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
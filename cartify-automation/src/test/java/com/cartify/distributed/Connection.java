@@ -0,0 +1,56 @@
+package com.cartify.distributed;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Connection: One JSON message per line between the Coordinator and a Worker.
+ * Sending is synchronized, since a worker reports results from test threads.
+ */
+final class Connection implements Closeable {
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final BufferedWriter out;
+    private final Json json = new Json();
+
+    Connection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    synchronized void send(Map<String, Object> message) throws IOException {
+        StringWriter line = new StringWriter();
+        try (JsonOutput output = json.newOutput(line)) {
+            output.setPrettyPrint(false).write(message);
+        }
+        out.write(line.toString());
+        out.newLine();
+        out.flush();
+    }
+
+    /**
+     * The next message, or null once the other side has closed the connection.
+     */
+    Map<String, Object> receive() throws IOException {
+        String line = in.readLine();
+        return line != null ? json.toType(line, Json.MAP_TYPE) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
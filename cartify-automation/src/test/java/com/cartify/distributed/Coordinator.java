@@ -0,0 +1,312 @@
+package com.cartify.distributed;
+
+import com.cartify.reporting.DurationStore;
+import com.cartify.reporting.ResultMerger;
+import com.cartify.reporting.ResultRecord;
+import com.cartify.reporting.ResultSink;
+import com.cartify.reporting.ShardPlanner;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinator: Runs the suite on several Worker JVMs that pull tests as they go,
+ * so a worker that drew short tests simply takes more of them. Test methods are
+ * queued longest first by their DurationStore history and served over a local
+ * socket; the methods of a class whose tests depend on each other stay together.
+ *
+ * Each worker's results are streamed into target/distributed/workers/<id>/
+ * test-results.jsonl as its tests end, so a crashed worker loses nothing that
+ * finished. An item a worker was running when it went away is run once more by
+ * another worker and otherwise reported as failed. At the end ResultMerger turns
+ * the streams into one Extent report, summary and bug report in target/distributed,
+ * and updates the DurationStore. Each worker also keeps its full reports, with
+ * logs and screenshots, under target/shards/<worker id>/.
+ *
+ * Usage: Coordinator [suite.xml]  (default testng.xml)
+ *
+ * Settings (system properties):
+ * cartify.workers          - worker JVMs to start on this machine; 0 waits for workers started elsewhere (default 2)
+ * cartify.coordinator.port - port to listen on (default 0: any free port)
+ * cartify.coordinator.bind - address to listen on (default 127.0.0.1)
+ */
+public class Coordinator {
+
+    private static final int MAX_ATTEMPTS = 2;
+    private static final long UNKNOWN_TEST_MILLIS = 10_000;
+    private static final Path OUTPUT = Paths.get("target", "distributed");
+
+    private final WorkQueue queue;
+    private final ServerSocket server;
+    private final List<Path> resultsFiles = new CopyOnWriteArrayList<>();
+    private final List<Process> workers = new ArrayList<>();
+
+    Coordinator(WorkQueue queue, ServerSocket server) {
+        this.queue = queue;
+        this.server = server;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path suite = Paths.get(args.length > 0 ? args[0] : "testng.xml");
+        int workerCount = Integer.getInteger("cartify.workers", 2);
+        WorkQueue queue = new WorkQueue(plan(ShardPlanner.readClassNames(suite),
+                DurationStore.load(DurationStore.defaultFile())));
+
+        Files.createDirectories(OUTPUT);
+        Coordinator coordinator;
+        try (ServerSocket server = new ServerSocket(Integer.getInteger("cartify.coordinator.port", 0), 50,
+                InetAddress.getByName(System.getProperty("cartify.coordinator.bind", "127.0.0.1")))) {
+            System.out.println("Coordinator listening on " + server.getInetAddress().getHostAddress() + ":"
+                    + server.getLocalPort() + " with " + queue.getTotal() + " work items");
+            coordinator = new Coordinator(queue, server);
+            coordinator.acceptWorkers();
+            coordinator.startWorkers(workerCount);
+            coordinator.awaitDone();
+        }
+
+        Map<ResultRecord.Status, Integer> totals = ResultMerger.merge(coordinator.getResultsFiles(), OUTPUT);
+        System.out.println("Distributed run: " + totals + ", reports in " + OUTPUT.toAbsolutePath());
+        System.exit(totals.get(ResultRecord.Status.FAIL) > 0 ? 1 : 0);
+    }
+
+    // ============================================
+    // Work items
+    // ============================================
+
+    static List<WorkItem> plan(List<String> classNames, DurationStore durations) throws ClassNotFoundException {
+        // Tests without history are estimated as the median of those with one
+        List<Long> known = new ArrayList<>(durations.getAll().values());
+        Collections.sort(known);
+        long unknown = known.isEmpty() ? UNKNOWN_TEST_MILLIS : known.get(known.size() / 2);
+
+        List<WorkItem> items = new ArrayList<>();
+        for (String className : classNames) {
+            List<String> methods = new ArrayList<>();
+            boolean dependent = false;
+            for (Method method : Class.forName(className).getMethods()) {
+                Test test = method.getAnnotation(Test.class);
+                if (test == null || !test.enabled() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                methods.add(method.getName());
+                dependent |= test.dependsOnMethods().length > 0 || test.dependsOnGroups().length > 0;
+            }
+            Collections.sort(methods);
+            List<List<String>> groups = new ArrayList<>();
+            if (dependent) {
+                groups.add(methods);
+            } else {
+                for (String method : methods) {
+                    groups.add(List.of(method));
+                }
+            }
+            for (List<String> group : groups) {
+                long estimate = 0;
+                for (String method : group) {
+                    long millis = durations.getMillis(DurationStore.key(className, method));
+                    estimate += millis >= 0 ? millis : unknown;
+                }
+                items.add(new WorkItem(items.size() + 1, className, new ArrayList<>(group), estimate, 1));
+            }
+        }
+        return items;
+    }
+
+    // ============================================
+    // Workers
+    // ============================================
+
+    private void acceptWorkers() {
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread handler = new Thread(() -> serve(socket), "coordinator-" + socket.getPort());
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (SocketException e) {
+                    return; // closed at the end of the run
+                } catch (IOException e) {
+                    System.out.println("Failed to accept a worker: " + e.getMessage());
+                }
+            }
+        }, "coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    // Workers run the same classpath and cartify.* settings, each under its own shard id
+    private void startWorkers(int count) throws IOException {
+        for (int i = 1; i <= count; i++) {
+            String id = "worker-" + i;
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            for (String name : System.getProperties().stringPropertyNames()) {
+                if (name.startsWith("cartify.") && !name.equals("cartify.shard")) {
+                    command.add("-D" + name + "=" + System.getProperty(name));
+                }
+            }
+            command.add("-Dcartify.shard=" + id);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(Worker.class.getName());
+            command.add(server.getInetAddress().getHostAddress());
+            command.add(String.valueOf(server.getLocalPort()));
+            Path log = OUTPUT.resolve(id + ".log");
+            workers.add(new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start());
+            System.out.println("Started " + id + ", output in " + log.toAbsolutePath());
+        }
+    }
+
+    private void awaitDone() throws InterruptedException {
+        List<WorkItem> notRun = new ArrayList<>();
+        while (!queue.awaitDone(1_000)) {
+            if (!workers.isEmpty() && workers.stream().noneMatch(Process::isAlive)) {
+                notRun.addAll(queue.abandon());
+            }
+        }
+        // Also picks up items put back by the last workers to go
+        notRun.addAll(queue.abandon());
+        if (!notRun.isEmpty()) {
+            System.out.println("All workers exited with " + notRun.size() + " work items not run");
+            recordNotRun(notRun);
+        }
+        // Workers write their own reports before exiting; give them the time to do so
+        for (Process worker : workers) {
+            if (!worker.waitFor(2, TimeUnit.MINUTES)) {
+                worker.destroy();
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String worker = "worker@" + socket.getPort();
+        try (Connection connection = new Connection(socket)) {
+            Map<String, Object> hello = connection.receive();
+            if (hello != null && "hello".equals(hello.get("type"))) {
+                worker = String.valueOf(hello.get("worker"));
+            }
+            try (ResultSink sink = ResultSink.create(resultsFileFor(worker))) {
+                handle(worker, connection, sink);
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to serve " + worker + ": " + e.getMessage());
+        }
+    }
+
+    // A worker id that connects again gets a file of its own, so nothing is overwritten
+    private synchronized Path resultsFileFor(String worker) {
+        Path directory = OUTPUT.resolve("workers").resolve(worker);
+        for (int i = 2; resultsFiles.contains(directory.resolve("test-results.jsonl")); i++) {
+            directory = OUTPUT.resolve("workers").resolve(worker + "-" + i);
+        }
+        Path file = directory.resolve("test-results.jsonl");
+        resultsFiles.add(file);
+        return file;
+    }
+
+    private void handle(String worker, Connection connection, ResultSink sink) {
+        WorkItem item = null;
+        Set<String> reported = new HashSet<>();
+        try {
+            Map<String, Object> message;
+            while ((message = connection.receive()) != null) {
+                switch (String.valueOf(message.get("type"))) {
+                    case "next":
+                        item = queue.take();
+                        reported.clear();
+                        connection.send(item != null ? item.toMessage() : Map.<String, Object>of("type", "done"));
+                        break;
+                    case "result":
+                        @SuppressWarnings("unchecked")
+                        ResultRecord record = ResultRecord.fromMap((Map<String, Object>) message.get("record"));
+                        sink.append(record);
+                        reported.add(record.getTestName());
+                        progress(worker, record);
+                        break;
+                    case "finished":
+                        if (item != null) {
+                            queue.complete(item);
+                            item = null;
+                        }
+                        break;
+                    default:
+                        System.out.println("Ignoring message from " + worker + ": " + message);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Lost " + worker + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (item != null) {
+            workerLost(worker, item, reported, sink);
+        }
+    }
+
+    // Runs what is left of the item once more, or reports it as failed
+    private void workerLost(String worker, WorkItem item, Set<String> reported, ResultSink sink) {
+        List<String> remaining = new ArrayList<>(item.getMethods());
+        remaining.removeAll(reported);
+        if (!remaining.isEmpty() && item.getAttempt() < MAX_ATTEMPTS) {
+            System.out.println(worker + " exited while running " + item + "; running it again");
+            queue.requeue(item.retry(remaining));
+            return;
+        }
+        try {
+            for (String method : remaining) {
+                sink.append(new ResultRecord(method, item.getClassName(), ResultRecord.Status.FAIL,
+                        System.currentTimeMillis(), 0, worker, null,
+                        "Worker exited while running this test, " + item.getAttempt() + " times", null));
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to record the tests " + worker + " was running: " + e.getMessage());
+        } finally {
+            queue.complete(item);
+        }
+    }
+
+    private void recordNotRun(List<WorkItem> items) {
+        try (ResultSink sink = ResultSink.create(OUTPUT.resolve("workers").resolve("not-run")
+                .resolve("test-results.jsonl"))) {
+            for (WorkItem item : items) {
+                for (String method : item.getMethods()) {
+                    sink.append(new ResultRecord(method, item.getClassName(), ResultRecord.Status.SKIP,
+                            System.currentTimeMillis(), 0, "coordinator", null, "Not run: no worker left", null));
+                }
+            }
+            resultsFiles.add(sink.getFile());
+        } catch (IOException e) {
+            System.out.println("Failed to record tests not run: " + e.getMessage());
+        }
+    }
+
+    private void progress(String worker, ResultRecord record) {
+        System.out.println("[" + queue.getCompleted() + "/" + queue.getTotal() + "] " + worker + " "
+                + record.getStatus() + " " + record.getClassName() + "." + record.getTestName()
+                + " (" + record.getDurationMillis() + " ms)");
+    }
+
+    List<Path> getResultsFiles() {
+        List<Path> files = new ArrayList<>(resultsFiles);
+        Collections.sort(files);
+        return files;
+    }
+}
@@ -0,0 +1,74 @@
+package com.cartify.distributed;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WorkItem: What a Worker runs in one go: a single test method, or all methods
+ * of a class whose tests depend on each other.
+ */
+final class WorkItem {
+
+    private final int id;
+    private final String className;
+    private final List<String> methods;
+    private final long estimatedMillis;
+    private final int attempt;
+
+    WorkItem(int id, String className, List<String> methods, long estimatedMillis, int attempt) {
+        this.id = id;
+        this.className = className;
+        this.methods = methods;
+        this.estimatedMillis = estimatedMillis;
+        this.attempt = attempt;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    List<String> getMethods() {
+        return methods;
+    }
+
+    long getEstimatedMillis() {
+        return estimatedMillis;
+    }
+
+    int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * The same item, narrowed down to the methods that still have to run, for another attempt.
+     */
+    WorkItem retry(List<String> remaining) {
+        return new WorkItem(id, className, remaining, estimatedMillis, attempt + 1);
+    }
+
+    Map<String, Object> toMessage() {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "item");
+        message.put("id", id);
+        message.put("class", className);
+        message.put("methods", methods);
+        return message;
+    }
+
+    @SuppressWarnings("unchecked")
+    static WorkItem fromMessage(Map<String, Object> message) {
+        return new WorkItem(((Number) message.get("id")).intValue(), (String) message.get("class"),
+                new ArrayList<>((List<String>) message.get("methods")), 0, 0);
+    }
+
+    @Override
+    public String toString() {
+        return className + (methods.size() == 1 ? "." + methods.get(0) : " " + methods);
+    }
+}
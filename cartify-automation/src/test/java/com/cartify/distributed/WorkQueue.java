@@ -0,0 +1,93 @@
+package com.cartify.distributed;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WorkQueue: The Coordinator's pending and running work items. Items are handed
+ * out longest first, so the long tests start early and the short ones fill the
+ * gaps at the end. An item whose worker went away is put back at the front.
+ */
+final class WorkQueue {
+
+    private final Deque<WorkItem> pending = new ArrayDeque<>();
+    private final Map<Integer, WorkItem> running = new HashMap<>();
+    private final int total;
+    private int completed;
+    private boolean abandoned;
+
+    WorkQueue(List<WorkItem> items) {
+        List<WorkItem> longestFirst = new ArrayList<>(items);
+        longestFirst.sort(Comparator.comparingLong(WorkItem::getEstimatedMillis).reversed());
+        pending.addAll(longestFirst);
+        total = items.size();
+    }
+
+    /**
+     * The next item to run, or null when there is nothing left. While the last
+     * items are still running this waits, since one of them may come back.
+     */
+    synchronized WorkItem take() throws InterruptedException {
+        while (pending.isEmpty() && !running.isEmpty() && !abandoned) {
+            wait();
+        }
+        WorkItem item = abandoned ? null : pending.poll();
+        if (item != null) {
+            running.put(item.getId(), item);
+        }
+        return item;
+    }
+
+    synchronized void complete(WorkItem item) {
+        if (running.remove(item.getId()) != null) {
+            completed++;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Puts an item back to be run by another worker.
+     */
+    synchronized void requeue(WorkItem item) {
+        running.remove(item.getId());
+        pending.addFirst(item);
+        notifyAll();
+    }
+
+    /**
+     * Gives up on whatever has not run, e.g. when every worker has exited.
+     *
+     * @return the items that were still pending
+     */
+    synchronized List<WorkItem> abandon() {
+        abandoned = true;
+        List<WorkItem> left = new ArrayList<>(pending);
+        pending.clear();
+        notifyAll();
+        return left;
+    }
+
+    synchronized boolean awaitDone(long timeoutMillis) throws InterruptedException {
+        if (!isDone()) {
+            wait(timeoutMillis);
+        }
+        return isDone();
+    }
+
+    synchronized boolean isDone() {
+        return completed == total || (abandoned && running.isEmpty());
+    }
+
+    synchronized int getTotal() {
+        return total;
+    }
+
+    synchronized int getCompleted() {
+        return completed;
+    }
+}
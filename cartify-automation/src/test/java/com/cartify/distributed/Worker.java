@@ -0,0 +1,206 @@
+package com.cartify.distributed;
+
+import com.cartify.driver.DriverPool;
+import com.cartify.listeners.CommandMetricsListener;
+import com.cartify.listeners.LocalSiteListener;
+import com.cartify.listeners.NetworkCacheListener;
+import com.cartify.listeners.TestListener;
+import com.cartify.reporting.ResultRecord;
+import com.cartify.reporting.Shard;
+import com.cartify.utils.CustomTestListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worker: Pulls tests from a Coordinator one at a time and runs each as a small
+ * TestNG suite in this JVM, until the coordinator has nothing left. The
+ * DriverPool, local site and report listeners live for the whole worker, so
+ * every test after the first finds a warm browser. Each result is sent back to
+ * the coordinator as soon as the test ends.
+ *
+ * While a worker runs, suite-end work (the pool shutdown, report flushes and
+ * summaries) is held back, see defersSuiteEnd(), and done once when it exits.
+ * Its own reports go to target/shards/<worker id>/ like any shard's.
+ *
+ * Usage: Worker [host] [port]
+ *
+ * Settings (system properties):
+ * cartify.coordinator.host - coordinator address (default 127.0.0.1)
+ * cartify.coordinator.port - coordinator port (required when not given as an argument)
+ * cartify.shard            - worker id, also used for the output directory (default worker-<pid>)
+ */
+public class Worker implements ITestListener, ISuiteListener {
+
+    private static volatile boolean running;
+
+    private final String id;
+    private final Connection connection;
+    private final LocalSiteListener site = new LocalSiteListener();
+    private final CommandMetricsListener metrics = new CommandMetricsListener();
+    private final TestListener reports = new TestListener();
+    private final CustomTestListener results = new CustomTestListener();
+    private volatile WorkItem current;
+    private ISuite lastSuite;
+    private ITestContext lastContext;
+
+    Worker(String id, Connection connection) {
+        this.id = id;
+        this.connection = connection;
+    }
+
+    /**
+     * True while this JVM is a worker between tests; suite listeners then leave
+     * their end-of-suite work for the worker to do when it exits.
+     */
+    public static boolean defersSuiteEnd() {
+        return running;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : System.getProperty("cartify.coordinator.host", "127.0.0.1");
+        String port = args.length > 1 ? args[1] : System.getProperty("cartify.coordinator.port");
+        if (port == null) {
+            throw new IllegalArgumentException("Usage: Worker [host] [port], or set -Dcartify.coordinator.port");
+        }
+        String id = Shard.isSharded() ? Shard.getId() : "worker-" + ProcessHandle.current().pid();
+        try (Connection connection = new Connection(new Socket(InetAddress.getByName(host), Integer.parseInt(port)))) {
+            new Worker(id, connection).run();
+        }
+        // Threads of the pool and local site would otherwise keep the JVM alive
+        System.exit(0);
+    }
+
+    void run() throws IOException {
+        Map<String, Object> hello = new LinkedHashMap<>();
+        hello.put("type", "hello");
+        hello.put("worker", id);
+        connection.send(hello);
+        System.out.println("Worker " + id + " connected");
+
+        running = true;
+        try {
+            Map<String, Object> message;
+            while ((message = next()) != null && "item".equals(message.get("type"))) {
+                current = WorkItem.fromMessage(message);
+                runItem(current);
+                Map<String, Object> finished = new LinkedHashMap<>();
+                finished.put("type", "finished");
+                finished.put("id", current.getId());
+                connection.send(finished);
+                current = null;
+            }
+        } finally {
+            running = false;
+            finishSuite();
+        }
+    }
+
+    private Map<String, Object> next() throws IOException {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("type", "next");
+        connection.send(request);
+        return connection.receive();
+    }
+
+    private void runItem(WorkItem item) {
+        System.out.println("Worker " + id + " running " + item);
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Cartify worker " + id);
+        suite.setParallel(XmlSuite.ParallelMode.NONE);
+        XmlTest test = new XmlTest(suite);
+        test.setName(item.toString());
+        XmlClass testClass = new XmlClass(item.getClassName());
+        List<XmlInclude> includes = new ArrayList<>();
+        for (String method : item.getMethods()) {
+            includes.add(new XmlInclude(method));
+        }
+        testClass.setIncludedMethods(includes);
+        test.getXmlClasses().add(testClass);
+
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setXmlSuites(List.of(suite));
+        // Same instances for every test, so their state carries over between the small suites
+        testng.addListener(site);
+        testng.addListener(new NetworkCacheListener());
+        testng.addListener(metrics);
+        testng.addListener(reports);
+        testng.addListener(results);
+        testng.addListener(this);
+        testng.run();
+    }
+
+    // What the listeners and BaseTest skipped after each test, done once for the whole worker
+    private void finishSuite() {
+        if (lastContext != null) {
+            results.onFinish(lastContext);
+            reports.onFinish(lastContext);
+        }
+        if (lastSuite != null) {
+            metrics.onFinish(lastSuite);
+            results.onFinish(lastSuite);
+            site.onFinish(lastSuite);
+        }
+        DriverPool.getInstance().shutdown();
+        System.out.println("Worker " + id + " finished");
+    }
+
+    // ============================================
+    // Results, sent back as each test ends
+    // ============================================
+
+    @Override
+    public void onStart(ISuite suite) {
+        lastSuite = suite;
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        lastContext = context;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        send(result, ResultRecord.Status.PASS);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        send(result, ResultRecord.Status.FAIL);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        send(result, ResultRecord.Status.SKIP);
+    }
+
+    private void send(ITestResult result, ResultRecord.Status status) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "result");
+        message.put("id", current != null ? current.getId() : -1);
+        message.put("record", CustomTestListener.toRecord(result, status).toMap());
+        try {
+            connection.send(message);
+        } catch (IOException e) {
+            // The coordinator re-runs or fails the item when the connection is gone
+            System.out.println("Worker " + id + " could not report " + result.getName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.cartify.listeners;
+
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.Markup;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.cartify.distributed.Worker;
+import com.cartify.driver.metrics.CommandMetrics;
+import com.cartify.driver.metrics.CommandProfile;
+import com.cartify.driver.metrics.CommandStats;
+import com.cartify.driver.metrics.LatencyHistogram;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CommandMetricsListener: Scopes CommandMetrics to each test method and reports
+ * where its WebDriver time went, per page method, in the console and the Extent
+ * report. Each test's profile is streamed out by CommandMetrics as it ends;
+ * at the end of the suite the run as a whole is exported as JSON.
+ */
+public class CommandMetricsListener implements IInvokedMethodListener, ISuiteListener {
+
+    private static final int PAGE_METHODS_SHOWN = 10;
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            CommandMetrics.startTest(testResult.getTestClass().getRealClass().getSimpleName()
+                    + "." + testResult.getMethod().getMethodName());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        CommandProfile profile = CommandMetrics.finishTest();
+        if (profile == null || profile.getTotal().getLatency().getCount() == 0) {
+            return;
+        }
+        System.out.println(profile.summary(5));
+        if (TestListener.hasTest()) {
+            TestListener.log(Status.INFO, headline(profile));
+            TestListener.log(Status.INFO, pageMethodTable(profile));
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!CommandMetrics.isEnabled() || Worker.defersSuiteEnd()) {
+            return;
+        }
+        CommandProfile run = CommandMetrics.getRun();
+        CommandMetrics.writeJson(CommandMetrics.getExportFile());
+        System.out.println("WebDriver commands, " + run.summary(PAGE_METHODS_SHOWN));
+        System.out.println("Command metrics written to " + CommandMetrics.getExportFile().toAbsolutePath()
+                + " and " + CommandMetrics.getTestsFile().toAbsolutePath());
+        if (run.getTotal().getLatency().getCount() > 0) {
+            TestListener.addSuiteNode("WebDriver command metrics", headline(run), pageMethodTable(run).getMarkup());
+            TestListener.flushReport();
+        }
+    }
+
+    private static String headline(CommandProfile profile) {
+        CommandStats total = profile.getTotal();
+        return total.getLatency().getCount() + " WebDriver commands, "
+                + LatencyHistogram.millisOf(total.getLatency().getTotalMicros()) + " ms ("
+                + LatencyHistogram.millisOf(total.getWaitMicros()) + " ms waiting, "
+                + LatencyHistogram.millisOf(total.getActMicros()) + " ms acting) of "
+                + LatencyHistogram.millisOf(profile.getWallMicros()) + " ms wall time";
+    }
+
+    private static Markup pageMethodTable(CommandProfile profile) {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Page method", "Commands", "p50 ms", "p95 ms", "Total ms", "Waiting ms", "Acting ms"});
+        int shown = 0;
+        for (Map.Entry<String, CommandStats> entry : profile.pageMethodsByTotal()) {
+            if (shown++ == PAGE_METHODS_SHOWN) {
+                break;
+            }
+            CommandStats stats = entry.getValue();
+            LatencyHistogram latency = stats.getLatency();
+            rows.add(new String[]{
+                    entry.getKey(),
+                    String.valueOf(latency.getCount()),
+                    String.valueOf(LatencyHistogram.millisOf(latency.percentileMicros(50))),
+                    String.valueOf(LatencyHistogram.millisOf(latency.percentileMicros(95))),
+                    String.valueOf(LatencyHistogram.millisOf(latency.getTotalMicros())),
+                    String.valueOf(LatencyHistogram.millisOf(stats.getWaitMicros())),
+                    String.valueOf(LatencyHistogram.millisOf(stats.getActMicros()))});
+        }
+        return MarkupHelper.createTable(rows.toArray(new String[0][]));
+    }
+}
@@ -0,0 +1,44 @@
+package com.cartify.listeners;
+
+import com.cartify.config.CartifyConfig;
+import com.cartify.distributed.Worker;
+import com.cartify.server.LocalCartifyServer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * LocalSiteListener: With -Dcartify.site=local, starts the embedded Cartify
+ * stand-in once per suite on an ephemeral port and points CartifyConfig at it.
+ * A Worker keeps it running across the small suites it runs.
+ */
+public class LocalSiteListener implements ISuiteListener {
+
+    private LocalCartifyServer server;
+
+    @Override
+    public synchronized void onStart(ISuite suite) {
+        if (!"local".equalsIgnoreCase(System.getProperty("cartify.site")) || server != null) {
+            return;
+        }
+        try {
+            server = new LocalCartifyServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start the local Cartify site", e);
+        }
+        server.start();
+        CartifyConfig.setBaseUrl(server.getBaseUrl());
+        System.out.println("Local Cartify site running at " + server.getBaseUrl());
+    }
+
+    @Override
+    public synchronized void onFinish(ISuite suite) {
+        if (server != null && !Worker.defersSuiteEnd()) {
+            server.stop();
+            server = null;
+            CartifyConfig.setBaseUrl(System.getProperty("cartify.baseUrl", CartifyConfig.DEFAULT_BASE_URL));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.cartify.listeners;
+
+import com.cartify.driver.DriverPool;
+import com.cartify.driver.DriverRegistry;
+import com.cartify.driver.network.NetworkMode;
+import com.cartify.driver.network.SessionNetwork;
+import com.cartify.driver.network.TrafficBaseline;
+import com.cartify.driver.network.TrafficStats;
+import com.cartify.utils.ReportLogger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+/**
+ * NetworkCacheListener: Reports requests the replay archive could not answer
+ * and what the resource policy blocked or stubbed for each test, with the bytes
+ * and request time saved against the test's full-profile TrafficBaseline. A test
+ * run with nothing blocked records its traffic as that baseline instead.
+ * With -Dcartify.network.failOnMiss a test that passed despite misses is
+ * failed, so an outdated recording is noticed instead of silently going live.
+ */
+public class NetworkCacheListener implements IInvokedMethodListener {
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        SessionNetwork network = DriverPool.getInstance().getNetwork(DriverRegistry.get());
+        if (network == null) {
+            return;
+        }
+        TrafficStats stats = network.getTrafficStats();
+        if (!stats.isEmpty()) {
+            String key = TrafficBaseline.key(testResult.getTestClass().getName(),
+                    testResult.getMethod().getMethodName());
+            if (network.getPolicy().isPassThrough()) {
+                TrafficBaseline.shared().record(key, stats);
+            } else {
+                ReportLogger.log("Resource policy '" + network.getPolicy().getName() + "': " + stats + "; "
+                        + TrafficBaseline.shared().compare(key, stats));
+            }
+        }
+        if (SessionNetwork.getMode() != NetworkMode.REPLAY) {
+            return;
+        }
+        List<String> misses = network.getCacheMisses();
+        if (misses.isEmpty()) {
+            return;
+        }
+        ReportLogger.log("Replay cache misses (" + misses.size() + "): " + String.join(", ", misses));
+        if (SessionNetwork.isFailOnMiss() && testResult.getStatus() == ITestResult.SUCCESS) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError(
+                    misses.size() + " request(s) missing from the HTTP archive, re-record with "
+                            + "-Dcartify.network.mode=record: " + misses));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.cartify.listeners;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * ParallelSuiteListener: Applies the parallel mode and thread count before
+ * the suite starts, so they can be tuned per run without editing testng.xml.
+ *
+ * Settings (system properties):
+ * cartify.parallel - none, methods, classes or tests (default methods)
+ * cartify.threads  - worker threads for tests and DataProviders (default: one per core)
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String mode = System.getProperty("cartify.parallel", "methods");
+        int threads = Integer.getInteger("cartify.threads", Runtime.getRuntime().availableProcessors());
+
+        for (XmlSuite suite : suites) {
+            suite.setParallel(XmlSuite.ParallelMode.getValidParallel(mode));
+            suite.setThreadCount(threads);
+            suite.setDataProviderThreadCount(threads);
+        }
+    }
+}
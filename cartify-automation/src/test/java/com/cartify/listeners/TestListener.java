@@ -1,44 +1,177 @@
 package com.cartify.listeners;
 
-import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.Markup;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.cartify.distributed.Worker;
+import com.cartify.driver.DriverPool;
+import com.cartify.driver.DriverRegistry;
+import com.cartify.driver.FlightRecorder;
+import com.cartify.reporting.ReportEntry;
+import com.cartify.reporting.ScreenshotService;
+import com.cartify.reporting.Shard;
+import com.cartify.reporting.Step;
+import com.cartify.reporting.StepTimeline;
+import com.cartify.reporting.StreamingReport;
 import com.cartify.utils.ExtentManager;
+import org.openqa.selenium.WebDriver;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-public class TestListener implements ITestListener {
-    private static ExtentReports extent = ExtentManager.createInstance("target/extent-report.html");
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * TestListener: Extent reporting for the suite.
+ * Safe under parallel execution: each thread logs to its own ExtentTest,
+ * shared report state is only touched through ExtentManager, and the
+ * failure screenshot uses the driver bound to the failing test's thread.
+ * The screenshot and flight recording are taken in afterInvocation, which
+ * runs before BaseTest's @AfterMethod returns the driver to the pool and
+ * resets it; onTestFailure only runs after that.
+ * Each test gets a StepTimeline, rendered as a table when the test ends,
+ * and the suite ends with a table of its slowest steps. Failures also get
+ * the session's flight recording: recent commands, console messages and
+ * network errors, and DOM snapshots.
+ *
+ * With -Dcartify.report=streaming the suite is written as a StreamingReport
+ * instead, for suites too large to hold in one Extent report. Other listeners
+ * log through the static helpers below, which write to whichever report is in use.
+ *
+ * Where each test's report page, screenshot and flight recording ended up, and
+ * its step timeline, are left on the ITestResult (see the *_ATTRIBUTE names) for
+ * the results stream, so a merged report can show and link them.
+ */
+public class TestListener implements ITestListener, IInvokedMethodListener {
+    static {
+        if (!StreamingReport.isEnabled()) {
+            ExtentManager.createInstance(Shard.pathString("target/extent-report.html"));
+        }
+    }
+
+    public static final String REPORT_ATTRIBUTE = "cartify.report";
+    public static final String SCREENSHOT_ATTRIBUTE = "cartify.screenshot";
+    public static final String FLIGHT_RECORDING_ATTRIBUTE = "cartify.flightRecording";
+    public static final String STEPS_ATTRIBUTE = "cartify.steps";
+
+    private static final int RECORDED_ROWS = 25;
+
     private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    private static ThreadLocal<ReportEntry> entry = new ThreadLocal<>();
 
+    /**
+     * The current thread's Extent test, or null when the streaming report is in use.
+     */
     public static ExtentTest getTest() {
         return test.get();
     }
 
+    public static boolean hasTest() {
+        return test.get() != null || entry.get() != null;
+    }
+
+    public static void log(Status status, String details) {
+        if (test.get() != null) {
+            test.get().log(status, details);
+        } else if (entry.get() != null) {
+            entry.get().log(status.name(), details);
+        }
+    }
+
+    public static void log(Status status, Markup markup) {
+        log(status, markup.getMarkup());
+    }
+
+    /**
+     * Adds a suite-level node, e.g. a summary table, to the report.
+     */
+    public static void addSuiteNode(String name, String... details) {
+        if (StreamingReport.isEnabled()) {
+            ReportEntry node = StreamingReport.getInstance().startEntry(name, null);
+            for (String detail : details) {
+                node.log(Status.INFO.name(), detail);
+            }
+            node.finish(Status.INFO.name());
+        } else {
+            ExtentTest node = ExtentManager.createTest(name);
+            for (String detail : details) {
+                node.info(detail);
+            }
+        }
+    }
+
+    public static void flushReport() {
+        if (StreamingReport.isEnabled()) {
+            StreamingReport.getInstance().flush();
+        } else {
+            ExtentManager.flush();
+        }
+    }
+
     @Override
     public void onTestStart(ITestResult result) {
-        ExtentTest extentTest = extent.createTest(result.getMethod().getMethodName());
-        test.set(extentTest);
+        String name = result.getMethod().getMethodName();
+        if (StreamingReport.isEnabled()) {
+            entry.set(StreamingReport.getInstance().startEntry(name, result.getTestClass().getName()));
+            result.setAttribute(REPORT_ATTRIBUTE, entry.get().getFile().toAbsolutePath().toString());
+        } else {
+            test.set(ExtentManager.createTest(name));
+            result.setAttribute(REPORT_ATTRIBUTE, Paths.get(Shard.pathString("target/extent-report.html"))
+                    .toAbsolutePath().toString());
+        }
+        StepTimeline.start(name);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        test.get().log(Status.PASS, "Test Passed");
+        renderTimeline(result);
+        log(Status.PASS, "Test Passed");
+        finishEntry(Status.PASS);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        test.get().log(Status.FAIL, "Test Failed");
-        test.get().fail(result.getThrowable());
+        renderTimeline(result);
+        log(Status.FAIL, "Test Failed");
+        if (entry.get() != null) {
+            entry.get().fail(result.getThrowable());
+        } else {
+            test.get().fail(result.getThrowable());
+        }
+        finishEntry(Status.FAIL);
+    }
 
+    // Runs on the test's thread while it still holds its driver, before @AfterMethod
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod() || result.getStatus() != ITestResult.FAILURE || !hasTest()) {
+            return;
+        }
+        WebDriver driver = DriverRegistry.get();
+        if (driver == null) {
+            return;
+        }
         try {
-            Object currentClass = result.getInstance();
-            org.openqa.selenium.WebDriver driver = ((com.cartify.tests.BaseTest) currentClass).getDriver();
-            if (driver != null) {
-                String screenshotPath = captureScreenshot(driver, result.getMethod().getMethodName());
-                test.get().addScreenCaptureFromPath(screenshotPath);
+            // Written in the background; the path is valid by the time the report is flushed
+            Path screenshot = ScreenshotService.getInstance().capture(driver, result.getMethod().getMethodName());
+            result.setAttribute(SCREENSHOT_ATTRIBUTE, screenshot.toAbsolutePath().toString());
+            if (entry.get() != null) {
+                entry.get().addScreenshot(screenshot);
+            } else {
+                test.get().addScreenCaptureFromPath(screenshot.toString());
             }
+            attachFlightRecording(DriverPool.getInstance().getRecorder(driver), result);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -46,28 +179,130 @@ public class TestListener implements ITestListener {
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        test.get().log(Status.SKIP, "Test Skipped");
+        renderTimeline(result);
+        log(Status.SKIP, "Test Skipped");
+        finishEntry(Status.SKIP);
     }
 
     @Override
     public void onFinish(ITestContext context) {
-        if (extent != null) {
-            extent.flush();
+        if (Worker.defersSuiteEnd()) {
+            return;
         }
+        renderSlowestSteps();
+        ScreenshotService.getInstance().flush();
+        flushReport();
     }
 
-    private String captureScreenshot(org.openqa.selenium.WebDriver driver, String screenshotName) {
-        String dateName = new java.text.SimpleDateFormat("yyyyMMddhhmmss").format(new java.util.Date());
-        org.openqa.selenium.TakesScreenshot ts = (org.openqa.selenium.TakesScreenshot) driver;
-        java.io.File source = ts.getScreenshotAs(org.openqa.selenium.OutputType.FILE);
-        String destination = System.getProperty("user.dir") + "/target/screenshots/" + screenshotName + dateName
-                + ".png";
-        java.io.File finalDestination = new java.io.File(destination);
-        try {
-            org.apache.commons.io.FileUtils.copyFile(source, finalDestination);
-        } catch (java.io.IOException e) {
-            e.printStackTrace();
+    // Closes the streaming report's page for the test; Extent keeps its tests until flush
+    private static void finishEntry(Status status) {
+        ReportEntry current = entry.get();
+        if (current != null) {
+            current.finish(status.name());
+            entry.remove();
+        }
+    }
+
+    // ============================================
+    // Step timing
+    // ============================================
+
+    private void renderTimeline(ITestResult result) {
+        StepTimeline timeline = StepTimeline.finish();
+        if (timeline == null || timeline.getSteps().isEmpty()) {
+            return;
+        }
+        List<String> steps = new ArrayList<>();
+        for (Step step : timeline.getSteps()) {
+            steps.add("    ".repeat(step.getDepth()) + step);
+        }
+        result.setAttribute(STEPS_ATTRIBUTE, steps);
+        if (!hasTest()) {
+            return;
         }
-        return destination;
+        long total = Math.max(1, timeline.getElapsedMillis());
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Step", "Start", "Duration", "Self", "Timeline"});
+        for (Step step : timeline.getSteps()) {
+            rows.add(new String[]{
+                    "&nbsp;".repeat(4 * step.getDepth()) + step.getName() + (step.isUnfinished() ? " (unfinished)" : ""),
+                    "+" + Step.format(step.getStartOffsetMillis()),
+                    Step.format(step.getDurationMillis()),
+                    Step.format(step.getSelfMillis()),
+                    bar(step.getStartOffsetMillis() * 100.0 / total, step.getDurationMillis() * 100.0 / total)});
+        }
+        log(Status.INFO, "Step timeline (" + Step.format(total) + ")");
+        log(Status.INFO, MarkupHelper.createTable(rows.toArray(new String[0][])));
+    }
+
+    private void renderSlowestSteps() {
+        List<Step> slowest = StepTimeline.slowest();
+        if (slowest.isEmpty()) {
+            return;
+        }
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Step", "Test", "Duration", "Self"});
+        for (Step step : slowest) {
+            rows.add(new String[]{step.getName() + (step.isUnfinished() ? " (unfinished)" : ""), step.getTestName(),
+                    Step.format(step.getDurationMillis()), Step.format(step.getSelfMillis())});
+        }
+        addSuiteNode("Slowest steps", MarkupHelper.createTable(rows.toArray(new String[0][])).getMarkup());
+    }
+
+    // ============================================
+    // Flight recorder
+    // ============================================
+
+    private void attachFlightRecording(FlightRecorder recorder, ITestResult result) throws IOException {
+        if (recorder == null || !FlightRecorder.isEnabled()) {
+            return;
+        }
+        recorder.captureSnapshot("failure");
+        Path directory = recorder.dump(result.getMethod().getMethodName() + "_"
+                + new SimpleDateFormat("yyyyMMddHHmmss").format(new Date()) + "_" + Thread.currentThread().getId());
+        Path recording = directory.resolve("recording.json");
+        result.setAttribute(FLIGHT_RECORDING_ATTRIBUTE, recording.toAbsolutePath().toString());
+        log(Status.INFO, "Flight recording: <a href='" + recording.toUri() + "'>"
+                + directory + "</a>");
+
+        List<Map<String, Object>> commands = recorder.getCommands();
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Time", "Page method", "Command", "Locator", "ms", "Failed"});
+        for (Map<String, Object> command : last(commands, RECORDED_ROWS)) {
+            rows.add(new String[]{cell(command.get("time")), cell(command.get("pageMethod")),
+                    cell(command.get("command")), cell(command.get("locator")), cell(command.get("ms")),
+                    cell(command.get("failed"))});
+        }
+        log(Status.INFO, "Last " + (rows.size() - 1) + " of " + commands.size() + " recorded commands");
+        log(Status.INFO, MarkupHelper.createTable(rows.toArray(new String[0][])));
+
+        List<Map<String, Object>> events = recorder.getEvents();
+        if (!events.isEmpty()) {
+            rows = new ArrayList<>();
+            rows.add(new String[]{"Time", "Source", "Level", "Message"});
+            for (Map<String, Object> event : last(events, RECORDED_ROWS)) {
+                rows.add(new String[]{cell(event.get("time")), cell(event.get("source")), cell(event.get("level")),
+                        cell(event.get("text"))});
+            }
+            log(Status.INFO, "Last " + (rows.size() - 1) + " console messages and network errors");
+            log(Status.INFO, MarkupHelper.createTable(rows.toArray(new String[0][])));
+        }
+    }
+
+    private static <T> List<T> last(List<T> list, int count) {
+        return list.subList(Math.max(0, list.size() - count), list.size());
+    }
+
+    // Table cells are inserted as HTML, and console messages may contain markup
+    private static String cell(Object value) {
+        return value == null ? "" : String.valueOf(value)
+                .replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    // Offset and width are percentages of the whole test
+    private static String bar(double offset, double width) {
+        return String.format(Locale.ROOT,
+                "<div style=\"margin-left:%.1f%%;width:%.1f%%;min-width:2px;height:8px;background:#4a90d9\"></div>",
+                offset, Math.max(width, 0.1));
     }
 }
@@ -0,0 +1,123 @@
+package com.cartify.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LocalCartifyServer: Embedded HTTP server serving a local stand-in for the
+ * Cartify site from the classpath (cartify-site/), so tests can run offline
+ * with millisecond page loads.
+ *
+ * Extension-less paths map to .html files the way the live site does
+ * (/products serves products.html), and / serves index.html.
+ */
+public class LocalCartifyServer {
+
+    private static final String SITE_ROOT = "cartify-site";
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "js", "application/javascript; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "json", "application/json; charset=utf-8",
+            "png", "image/png",
+            "svg", "image/svg+xml",
+            "ico", "image/x-icon");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public LocalCartifyServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * @param port port to bind on the loopback interface, 0 for an ephemeral one
+     */
+    public LocalCartifyServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "cartify-site");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String resource = resolveResource(exchange.getRequestURI());
+            if (resource == null) {
+                sendNotFound(exchange);
+                return;
+            }
+            byte[] bytes;
+            try (InputStream body = getClass().getClassLoader().getResourceAsStream(resource)) {
+                bytes = body.readAllBytes();
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType(resource));
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            exchange.sendResponseHeaders(200, head ? -1 : bytes.length);
+            if (!head) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String resolveResource(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.isEmpty() || "/".equals(path)) {
+            path = "/index.html";
+        }
+        if (path.contains("..")) {
+            return null;
+        }
+        String resource = SITE_ROOT + path;
+        if (path.lastIndexOf('.') < path.lastIndexOf('/')) {
+            resource += ".html";
+        }
+        return getClass().getClassLoader().getResource(resource) != null ? resource : null;
+    }
+
+    private static String contentType(String resource) {
+        String extension = resource.substring(resource.lastIndexOf('.') + 1);
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+
+    private static void sendNotFound(HttpExchange exchange) throws IOException {
+        byte[] bytes = "Not found".getBytes();
+        exchange.sendResponseHeaders(404, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
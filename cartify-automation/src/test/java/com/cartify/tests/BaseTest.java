@@ -1,57 +1,148 @@
 package com.cartify.tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.cartify.config.CartifyConfig;
+import com.cartify.distributed.Worker;
+import com.cartify.driver.DriverPool;
+import com.cartify.driver.DriverRegistry;
+import com.cartify.driver.network.NetworkProfile;
+import com.cartify.driver.network.ResourcePolicy;
+import com.cartify.pages.LoginPage;
+import com.cartify.pages.support.PageStability;
+import com.cartify.pages.support.StabilityResult;
+import com.cartify.reporting.Step;
+import com.cartify.users.PooledLogin;
+import com.cartify.users.SessionSnapshotCache;
+import com.cartify.users.TestAccount;
+import com.cartify.users.UserPool;
+import com.cartify.utils.ReportLogger;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
-import java.time.Duration;
 
 import org.testng.annotations.Listeners;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+/**
+ * BaseTest: Leases a browser per test method from the DriverPool.
+ * The driver lives in the DriverRegistry rather than in a field, so one
+ * test instance can safely run several methods in parallel.
+ */
 @Listeners(com.cartify.listeners.TestListener.class)
 public class BaseTest {
-    protected WebDriver driver;
     protected int defaultTimeout = 10;
-    protected String baseUrl = "https://cartify0.netlify.app";
-    protected String cartUrl = baseUrl + "/cartpage";
-    protected String productsUrl = baseUrl + "/products";
-    protected String checkoutUrl = baseUrl + "/checkout";
+
+    // Accounts leased by the running test method, returned to the UserPool in tearDown
+    private final ThreadLocal<TestAccount> leasedAccount = new ThreadLocal<>();
+
+    // Resolved per call: the local stand-in server sets the base URL at suite start,
+    // after test instances are created
+    protected String baseUrl() {
+        return CartifyConfig.getBaseUrl();
+    }
+
+    protected String cartUrl() {
+        return CartifyConfig.url("/cartpage");
+    }
+
+    protected String productsUrl() {
+        return CartifyConfig.url("/products");
+    }
+
+    protected String checkoutUrl() {
+        return CartifyConfig.url("/checkout");
+    }
 
     public WebDriver getDriver() {
-        return driver;
+        return DriverRegistry.get();
     }
 
     @BeforeMethod
-    public void setUp() {
-        WebDriverManager.chromedriver().setup();
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--start-maximized");
-        options.addArguments("--remote-allow-origins=*");
+    public void setUp(Method testMethod) {
+        WebDriver driver = DriverPool.getInstance().acquire();
+        applyNetworkProfile(driver, testMethod);
+        if (testMethod.isAnnotationPresent(PooledLogin.class) || getClass().isAnnotationPresent(PooledLogin.class)) {
+            // Logs in from about:blank, so a saved login is in place before the first page of the site renders
+            loginWithPooledAccount();
+        } else {
+            driver.get(CartifyConfig.url("/"));
+        }
+    }
 
-        org.openqa.selenium.logging.LoggingPreferences logPrefs = new org.openqa.selenium.logging.LoggingPreferences();
-        logPrefs.enable(org.openqa.selenium.logging.LogType.BROWSER, java.util.logging.Level.ALL);
-        options.setCapability("goog:loggingPrefs", logPrefs);
+    // A @NetworkProfile on the method wins over one on the class
+    private void applyNetworkProfile(WebDriver driver, Method testMethod) {
+        NetworkProfile profile = testMethod.getAnnotation(NetworkProfile.class);
+        if (profile == null) {
+            profile = getClass().getAnnotation(NetworkProfile.class);
+        }
+        if (profile != null) {
+            DriverPool.getInstance().getNetwork(driver).usePolicy(ResourcePolicy.named(profile.value()));
+        }
+    }
 
-        driver = new ChromeDriver(options);
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(60));
-        driver.get("https://cartify0.netlify.app/");
+    /**
+     * Waits until the current page settles (no requests, animations or DOM churn)
+     * rather than for a fixed time, and logs how long that took.
+     */
+    protected StabilityResult waitForPageToSettle() {
+        try (Step ignored = ReportLogger.step("BaseTest.waitForPageToSettle")) {
+            StabilityResult result = new PageStability(getDriver()).waitForStable();
+            ReportLogger.log(result.toString());
+            return result;
+        }
     }
 
-    protected void waitFor(int seconds) {
-        try {
-            Thread.sleep(seconds * 1000L);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    /**
+     * Leases a pre-registered account from the UserPool and logs in with it,
+     * instead of registering a new user. Returned automatically after the test.
+     * The login is restored from a SessionSnapshotCache snapshot when one is
+     * still valid; only otherwise does the test go through the login form.
+     * Tests marked @PooledLogin are already logged in by setUp and get that account back.
+     */
+    protected TestAccount loginWithPooledAccount() {
+        if (leasedAccount.get() != null) {
+            return leasedAccount.get();
+        }
+        try (Step ignored = ReportLogger.step("BaseTest.loginWithPooledAccount")) {
+            WebDriver driver = getDriver();
+            TestAccount account = UserPool.getInstance().lease(driver);
+            leasedAccount.set(account);
+
+            SessionSnapshotCache sessions = SessionSnapshotCache.getInstance();
+            if (sessions.restore(driver, account)) {
+                ReportLogger.log("Restored saved session for pooled account " + account);
+                return account;
+            }
+            ReportLogger.log("Logging in with pooled account " + account);
+            LoginPage loginPage = new LoginPage(driver);
+            loginPage.open();
+            loginPage.login(account.getUsername(), account.getPassword(), true);
+            new WebDriverWait(driver, Duration.ofSeconds(defaultTimeout))
+                    .until(ExpectedConditions.not(ExpectedConditions.urlContains("login")));
+            sessions.capture(driver, account);
+            return account;
         }
     }
 
-    @AfterMethod
+    @AfterMethod(alwaysRun = true)
     public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+        TestAccount account = leasedAccount.get();
+        if (account != null) {
+            leasedAccount.remove();
+            UserPool.getInstance().release(account);
+        }
+        DriverPool.getInstance().release(getDriver());
+    }
+
+    // A Worker runs one small suite per test and keeps its browsers until it exits
+    @AfterSuite(alwaysRun = true)
+    public void shutDownDriverPool() {
+        if (!Worker.defersSuiteEnd()) {
+            DriverPool.getInstance().shutdown();
         }
     }
 }
@@ -1,25 +1,20 @@
 package com.cartify.tests;
 
 import com.cartify.pages.CheckoutPage;
-import com.cartify.pages.CartPage;
+import com.cartify.pages.CheckoutSnapshot;
 import com.cartify.pages.ProductsPage;
 import org.testng.Assert;
-import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 public class CheckoutPageTest extends BaseTest {
 
-    private CheckoutPage checkoutPage;
-    private CartPage cartPage;
-
-    @BeforeMethod
-    public void setUpPages() {
-        checkoutPage = new CheckoutPage(driver, checkoutUrl, defaultTimeout);
-        cartPage = new CartPage(driver, cartUrl, defaultTimeout);
+    private CheckoutPage newCheckoutPage() {
+        return new CheckoutPage(getDriver(), checkoutUrl(), defaultTimeout);
     }
 
     @Test(priority = 1, description = "Verify checkout validation for empty required field")
     public void testCheckoutShowsErrorForEmptyField() {
+        CheckoutPage checkoutPage = newCheckoutPage();
         checkoutPage.openCheckoutPage();
         Assert.assertTrue(checkoutPage.isPageLoaded(), "Checkout page should load");
 
@@ -36,10 +31,14 @@ public class CheckoutPageTest extends BaseTest {
 
         Assert.assertTrue(checkoutPage.isStillOnCheckoutPage(),
                 "User should remain on Checkout Page when validation fails");
+        CheckoutSnapshot form = checkoutPage.snapshot();
+        Assert.assertEquals(form.getEmail(), "", "Email should still be empty");
+        Assert.assertEquals(form.getFullName(), "Ahmed Mohamed", "Entered values should be kept");
     }
 
     @Test(priority = 2, description = "Verify checkout submission with COD")
     public void testCheckoutWithCashOnDelivery() {
+        CheckoutPage checkoutPage = newCheckoutPage();
         checkoutPage.openCheckoutPage();
         Assert.assertTrue(checkoutPage.isPageLoaded(), "Checkout page should load");
 
@@ -48,10 +47,11 @@ public class CheckoutPageTest extends BaseTest {
         checkoutPage.selectCashOnDelivery();
         checkoutPage.clickSubmitOrder();
 
-        waitFor(2);
+        waitForPageToSettle();
 
-        if (checkoutPage.isOrderPlacedSuccessfully()) {
-            String successMsg = checkoutPage.getSuccessMessage();
+        CheckoutSnapshot result = checkoutPage.snapshot();
+        if (result.isOrderPlaced()) {
+            String successMsg = result.getSuccessMessage();
             System.out.println("✅ Success: " + successMsg);
             Assert.assertTrue(successMsg.contains("success") || successMsg.contains("submitted"),
                     "Should show success message");
@@ -62,17 +62,18 @@ public class CheckoutPageTest extends BaseTest {
 
     @Test(priority = 3, description = "Verify checkout with credit card payment")
     public void testCheckoutWithCreditCard() {
+        CheckoutPage checkoutPage = newCheckoutPage();
         checkoutPage.openCheckoutPage();
         checkoutPage.fillBasicCheckoutInfo("Omar Hassan", "omar@test.com", "01234567890", "01234567890", "67890",
                 "789 Road", "Male");
         checkoutPage.selectCreditCard();
 
-        waitFor(1);
+        waitForPageToSettle();
 
         if (checkoutPage.isCardInfoVisible()) {
             checkoutPage.fillCreditCardInfo("4111111111111111", "Test User", "12/25", "123");
             checkoutPage.clickSubmitOrder();
-            waitFor(2);
+            waitForPageToSettle();
             if (checkoutPage.isOrderPlacedSuccessfully()) {
                 System.out.println("✅ Order placed successfully with Credit Card");
             } else {
@@ -85,17 +86,18 @@ public class CheckoutPageTest extends BaseTest {
 
     @Test(priority = 4, description = "Verify checkout with PayPal payment")
     public void testCheckoutWithPayPal() {
+        CheckoutPage checkoutPage = newCheckoutPage();
         checkoutPage.openCheckoutPage();
         checkoutPage.fillBasicCheckoutInfo("Sara Ahmed", "sara@test.com", "01234567890", "01234567890", "11111",
                 "123 Main St", "Female");
         checkoutPage.selectPayPal();
 
-        waitFor(1);
+        waitForPageToSettle();
 
         if (checkoutPage.isPayPalSectionVisible()) {
             checkoutPage.fillPayPalInfo("sara.paypal@test.com");
             checkoutPage.clickSubmitOrder();
-            waitFor(2);
+            waitForPageToSettle();
             if (checkoutPage.isOrderPlacedSuccessfully()) {
                 System.out.println("✅ Order placed successfully with PayPal");
             } else {
@@ -108,7 +110,7 @@ public class CheckoutPageTest extends BaseTest {
 
     @Test(priority = 5, description = "Document inability to fully test checkout due to empty products")
     public void testCheckoutLimitationDueToEmptyProducts() {
-        ProductsPage productsPage = new ProductsPage(driver, productsUrl, defaultTimeout);
+        ProductsPage productsPage = new ProductsPage(getDriver(), productsUrl(), defaultTimeout);
         productsPage.openProductsPage();
         int productCount = productsPage.getProductCount();
 
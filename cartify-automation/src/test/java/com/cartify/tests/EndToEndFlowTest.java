@@ -1,8 +1,10 @@
 package com.cartify.tests;
 
 import com.cartify.pages.*;
+import com.cartify.users.PooledLogin;
+import com.cartify.users.TestAccount;
 import com.cartify.utils.ReportLogger;
-import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -10,109 +12,26 @@ import java.time.Duration;
 
 public class EndToEndFlowTest extends BaseTest {
 
-    @Test(description = "E2E: Registration -> Account Verification -> Wishlist Interaction")
+    @PooledLogin
+    @Test(description = "E2E: Login -> Account Verification -> Wishlist Interaction")
     public void testEndToEndFlow() {
-        // 1. Registration
-        RegisterPage registerPage = new RegisterPage(driver);
-        registerPage.open();
+        WebDriver driver = getDriver();
 
-        String uniqueId = java.util.UUID.randomUUID().toString().substring(0, 8);
-        String email = "e2e_" + uniqueId + "@test.com";
-        String username = "user_" + uniqueId; // Lowercase
-        String password = "Password123!";
-
-        registerPage.fillAccountInfo(email, username, password);
-        registerPage.fillPersonalInfo("E2E", "Tester", "1234567890");
-        registerPage.fillDate("01/01/1995");
-        registerPage.selectGender(true);
-        registerPage.clickNext();
-        registerPage.fillAddress("123 E2E St", "Test City", "Test State", "12345", "Test Country");
-
-        // Wait for redirection or check URL
-        ReportLogger.log("Registration submitted. Current URL: " + driver.getCurrentUrl());
-        // Dynamic wait for redirection
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        try {
-            wait.until(ExpectedConditions.or(
-                    ExpectedConditions.urlContains("login"),
-                    ExpectedConditions.urlContains("index")));
-        } catch (Exception e) {
-            ReportLogger.log("Wait for redirection timed out or failed: " + e.getMessage());
-        }
-        ReportLogger.log("After wait. Current URL: " + driver.getCurrentUrl());
-
-        // Verify redirection (assuming redirection to login or home, then we login or
-        // go to profile)
-        // Check if we are on login page
-        if (driver.getCurrentUrl().contains("login")) {
-            ReportLogger.log("Redirected to login page, logging in...");
-            LoginPage loginPage = new LoginPage(driver);
-            // Verify inputs and use Remember Me
-            loginPage.login(username, password, true);
-
-            // Wait for login to process
-            try {
-                wait.until(ExpectedConditions.not(ExpectedConditions.urlContains("login")));
-            } catch (Exception e) {
-                ReportLogger.log("Wait for login timed out: " + e.getMessage());
-            }
-            ReportLogger.log("After login wait. Current URL: " + driver.getCurrentUrl());
-        }
+        // 1. Log in with a pooled account; registration itself is covered by RegistrationTest
+        TestAccount account = loginWithPooledAccount();
+        ReportLogger.log("Logged in as " + account + ". Current URL: " + driver.getCurrentUrl());
 
         // 2. Account Verification
         ProfilePage profilePage = new ProfilePage(driver);
-        profilePage.open();
-
-        // Check if redirected to login
-        if (driver.getCurrentUrl().contains("login")) {
-            ReportLogger.log("Redirected to login page after accessing profile, logging in...");
-            LoginPage loginPage = new LoginPage(driver);
-            loginPage.login(username, password);
-
-            // Wait for login to process
-            try {
-                wait.until(ExpectedConditions.not(ExpectedConditions.urlContains("login")));
-            } catch (Exception e) {
-            }
-            ReportLogger.log("After login wait. Current URL: " + driver.getCurrentUrl());
-
-            if (driver.getCurrentUrl().contains("login")) {
-                ReportLogger.log("Login failed with username. Error: " + loginPage.getErrorMessage());
-                // Try login with email
-                ReportLogger.log("Trying login with email...");
-                loginPage.login(email, password);
-                try {
-                    wait.until(ExpectedConditions.not(ExpectedConditions.urlContains("login")));
-                } catch (Exception e) {
-                }
-                ReportLogger.log("After email login wait. Current URL: " + driver.getCurrentUrl());
-
-                // Print browser logs
-                org.openqa.selenium.logging.LogEntries logEntries = driver.manage().logs()
-                        .get(org.openqa.selenium.logging.LogType.BROWSER);
-                for (org.openqa.selenium.logging.LogEntry entry : logEntries) {
-                    ReportLogger.log("BROWSER LOG: " + entry.getLevel() + " " + entry.getMessage());
-                }
-            }
-
-            // After login, we might be on home or profile.
-            // If home, navigate to profile again.
-            if (!driver.getCurrentUrl().contains("profile")) {
-                profilePage.open();
-            }
+        if (!driver.getCurrentUrl().contains("profile")) {
+            profilePage.open();
         }
 
         try {
             Assert.assertTrue(profilePage.isProfileLoaded(), "Profile page should be loaded");
         } catch (AssertionError e) {
+            // The DOM is attached to the report by the flight recorder
             ReportLogger.log("Profile page not loaded. Current URL: " + driver.getCurrentUrl());
-            try {
-                java.nio.file.Files.write(java.nio.file.Paths.get("debug_profile_source.html"),
-                        driver.getPageSource().getBytes());
-                ReportLogger.log("Page source saved to debug_profile_source.html");
-            } catch (java.io.IOException ioException) {
-                ioException.printStackTrace();
-            }
             throw e;
         }
         // Note: These assertions might fail if the placeholders in ProfilePage are not
@@ -139,6 +58,7 @@ public class EndToEndFlowTest extends BaseTest {
         // For simplicity, let's try to add the current view's product to wishlist if
         // possible.
 
+        String wishlistedProduct;
         try {
             // Wait for products to load
             try {
@@ -168,7 +88,7 @@ public class EndToEndFlowTest extends BaseTest {
                 }
             }
 
-            productPage.addToWishlist();
+            wishlistedProduct = productPage.addToWishlist();
 
             // Handle expected alert
             try {
@@ -183,13 +103,6 @@ public class EndToEndFlowTest extends BaseTest {
             }
         } catch (Exception e) {
             ReportLogger.log("Failed to interact with wishlist. Current URL: " + driver.getCurrentUrl());
-            try {
-                java.nio.file.Files.write(java.nio.file.Paths.get("debug_product_source.html"),
-                        driver.getPageSource().getBytes());
-                ReportLogger.log("Page source saved to debug_product_source.html");
-            } catch (java.io.IOException ioException) {
-                ioException.printStackTrace();
-            }
             throw e;
         }
 
@@ -199,7 +112,11 @@ public class EndToEndFlowTest extends BaseTest {
         productPage.goToWishlist();
 
         Assert.assertTrue(wishlistPage.getWishlistSize() > 0, "Wishlist should not be empty");
+        // Pooled accounts keep their wishlist between leases, so check for the product just added
+        Assert.assertTrue(wishlistPage.isProductInWishlist(wishlistedProduct),
+                "Wishlist should contain " + wishlistedProduct);
 
-        // Cleanup (Optional: Logout)
+        // Cleanup: hand the account back with the wishlist it came with
+        wishlistPage.removeProductFromWishlist(wishlistedProduct);
     }
 }
@@ -0,0 +1,51 @@
+package com.cartify.tests;
+
+import com.cartify.pages.LoginPage;
+import com.cartify.pages.ProfilePage;
+import com.cartify.pages.RegisterPage;
+import com.cartify.users.TestAccount;
+import com.cartify.utils.ReportLogger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * RegistrationTest: Covers the register wizard end to end. Other flows log in
+ * with pooled accounts (see UserPool) instead of registering.
+ */
+public class RegistrationTest extends BaseTest {
+
+    @Test(description = "Registration wizard creates an account that can log in")
+    public void testRegisterNewUser() {
+        WebDriver driver = getDriver();
+        TestAccount account = TestAccount.generate();
+
+        RegisterPage registerPage = new RegisterPage(driver);
+        registerPage.open();
+        registerPage.fillAccountInfo(account.getEmail(), account.getUsername(), account.getPassword());
+        registerPage.fillPersonalInfo(account.getFirstName(), account.getLastName(), account.getPhone());
+        registerPage.fillDate(account.getBirthDate());
+        registerPage.selectGender(account.isMale());
+        registerPage.clickNext();
+        registerPage.fillAddress(account.getAddress("street"), account.getAddress("city"),
+                account.getAddress("state"), account.getAddress("zip"), account.getAddress("country"));
+
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(defaultTimeout));
+        wait.until(ExpectedConditions.urlContains("login"));
+        ReportLogger.log("Registration submitted. Current URL: " + driver.getCurrentUrl());
+
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.login(account.getUsername(), account.getPassword());
+        wait.until(ExpectedConditions.not(ExpectedConditions.urlContains("login")));
+
+        ProfilePage profilePage = new ProfilePage(driver);
+        if (!driver.getCurrentUrl().contains("profile")) {
+            profilePage.open();
+        }
+        Assert.assertTrue(profilePage.isProfileLoaded(), "Newly registered user should reach the profile page");
+    }
+}
@@ -0,0 +1,32 @@
+package com.cartify.users;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+
+/**
+ * AccountProvisioner: Makes pooled accounts exist on the site under test.
+ */
+public interface AccountProvisioner {
+
+    /**
+     * Which accounts this provisioner can reuse: pooled accounts are persisted per scope.
+     */
+    String scope();
+
+    /**
+     * Registers the given accounts with the site; called once per account, ever.
+     */
+    void provision(List<TestAccount> accounts);
+
+    /**
+     * Whether install writes into the browser itself, and so needs it on the site's origin.
+     */
+    boolean installsInBrowser();
+
+    /**
+     * Makes a leased account usable in the given browser, which is on the site's origin
+     * when installsInBrowser() is true.
+     */
+    void install(WebDriver driver, TestAccount account);
+}
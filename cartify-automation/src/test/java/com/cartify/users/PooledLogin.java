@@ -0,0 +1,16 @@
+package com.cartify.users;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * PooledLogin: Marks a test class or method that runs logged in as a pooled
+ * account. BaseTest then logs in during setUp, before the browser loads any
+ * page, so a saved session is in place for the very first render.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface PooledLogin {
+}
@@ -0,0 +1,160 @@
+package com.cartify.users;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SessionSnapshot: The client-side state of a logged-in browser (cookies,
+ * localStorage and sessionStorage), captured once so it can be put back into
+ * another browser instead of logging in again.
+ *
+ * State is restored onto whatever origin the browser is pointed at, so a
+ * snapshot survives the local site moving to a new port between runs.
+ */
+final class SessionSnapshot {
+
+    private static final String CAPTURE_SCRIPT =
+            "function dump(storage) {"
+            + "  var out = {};"
+            + "  for (var i = 0; i < storage.length; i++) { var k = storage.key(i); out[k] = storage.getItem(k); }"
+            + "  return out;"
+            + "}"
+            + "return { local: dump(localStorage), session: dump(sessionStorage) };";
+
+    private static final String RESTORE_BODY =
+            "Object.keys(state.local).forEach(function (k) { localStorage.setItem(k, state.local[k]); });"
+            + "Object.keys(state.session).forEach(function (k) { sessionStorage.setItem(k, state.session[k]); });";
+
+    private static final String RESTORE_SCRIPT = "var state = arguments[0];" + RESTORE_BODY;
+
+    // Registered per restore with the origin and state inlined, see restoreOnNextDocument
+    private static final String DOCUMENT_SCRIPT =
+            "(function (origin, state) { if (location.origin !== origin) { return; }" + RESTORE_BODY + "})(%s, %s);";
+
+    private static final Json JSON = new Json();
+
+    private final List<Map<String, Object>> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final long expiresAt;
+
+    private SessionSnapshot(List<Map<String, Object>> cookies, Map<String, String> localStorage,
+            Map<String, String> sessionStorage, long expiresAt) {
+        this.cookies = List.copyOf(cookies);
+        this.localStorage = Map.copyOf(localStorage);
+        this.sessionStorage = Map.copyOf(sessionStorage);
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Captures the state of the page the driver is on. The snapshot expires
+     * after the given time or with the first session cookie that does, whichever is sooner.
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot capture(WebDriver driver, Duration timeToLive) {
+        Map<String, Map<String, String>> storage = (Map<String, Map<String, String>>)
+                ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        long expiresAt = System.currentTimeMillis() + timeToLive.toMillis();
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("name", cookie.getName());
+            json.put("value", cookie.getValue());
+            json.put("path", cookie.getPath());
+            json.put("secure", cookie.isSecure());
+            json.put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getExpiry() != null) {
+                json.put("expiry", cookie.getExpiry().getTime());
+                expiresAt = Math.min(expiresAt, cookie.getExpiry().getTime());
+            }
+            cookies.add(json);
+        }
+        return new SessionSnapshot(cookies, storage.get("local"), storage.get("session"), expiresAt);
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+
+    /**
+     * Restores the state into the page the driver is on, which must already be on the target origin.
+     */
+    public void restoreInPlace(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(RESTORE_SCRIPT, storageArgument());
+        for (Map<String, Object> cookie : cookies) {
+            driver.manage().addCookie(toCookie(cookie));
+        }
+    }
+
+    /**
+     * Restores the state before the next document on the given origin runs any script,
+     * so no extra navigation is needed. Needs a CDP-capable browser; pass the returned
+     * identifier to {@link #removeDocumentScript} once the page has loaded, or the
+     * state would be written again into every later document of the pooled session.
+     */
+    public String restoreOnNextDocument(HasCdp cdp, String origin) {
+        List<Map<String, Object>> cdpCookies = new ArrayList<>();
+        for (Map<String, Object> cookie : cookies) {
+            Map<String, Object> cdpCookie = new LinkedHashMap<>(cookie);
+            cdpCookie.remove("expiry");
+            cdpCookie.put("url", origin);
+            if (cookie.get("expiry") != null) {
+                cdpCookie.put("expires", ((Number) cookie.get("expiry")).longValue() / 1000.0);
+            }
+            cdpCookies.add(cdpCookie);
+        }
+        cdp.executeCdpCommand("Network.setCookies", Map.of("cookies", cdpCookies));
+        String source = String.format(DOCUMENT_SCRIPT, JSON.toJson(origin), JSON.toJson(storageArgument()));
+        Map<String, Object> result = cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                Map.of("source", source));
+        return (String) result.get("identifier");
+    }
+
+    public static void removeDocumentScript(HasCdp cdp, String identifier) {
+        cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", identifier));
+    }
+
+    private Map<String, Object> storageArgument() {
+        return Map.of("local", localStorage, "session", sessionStorage);
+    }
+
+    private static Cookie toCookie(Map<String, Object> json) {
+        Object expiry = json.get("expiry");
+        return new Cookie.Builder((String) json.get("name"), (String) json.get("value"))
+                .path((String) json.get("path"))
+                .isSecure(Boolean.TRUE.equals(json.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(json.get("httpOnly")))
+                .expiresOn(expiry != null ? new Date(((Number) expiry).longValue()) : null)
+                .build();
+    }
+
+    // ==================== Serialization ====================
+
+    public Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("expiresAt", expiresAt);
+        json.put("cookies", cookies);
+        json.put("localStorage", localStorage);
+        json.put("sessionStorage", sessionStorage);
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot fromJson(Map<String, Object> json) {
+        return new SessionSnapshot(
+                (List<Map<String, Object>>) json.get("cookies"),
+                (Map<String, String>) json.get("localStorage"),
+                (Map<String, String>) json.get("sessionStorage"),
+                ((Number) json.get("expiresAt")).longValue());
+    }
+}
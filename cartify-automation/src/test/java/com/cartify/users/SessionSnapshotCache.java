@@ -0,0 +1,156 @@
+package com.cartify.users;
+
+import com.cartify.config.CartifyConfig;
+import com.cartify.pages.ProfilePage;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SessionSnapshotCache: Logged-in browser state per account, kept in memory
+ * and on disk so a test can restore a session instead of logging in.
+ * A restore is trusted only once the profile page renders for it.
+ *
+ * Settings (system properties):
+ * cartify.session.dir        - snapshot directory (default .cartify/sessions)
+ * cartify.session.ttlMinutes - how long a snapshot is reused (default 30)
+ */
+public class SessionSnapshotCache {
+
+    private static final Type JSON_TYPE = new TypeToken<Map<String, Object>>() {
+    }.getType();
+    private static final Duration VALIDATION_TIMEOUT = Duration.ofSeconds(2);
+
+    private static final SessionSnapshotCache INSTANCE = new SessionSnapshotCache(
+            Paths.get(System.getProperty("cartify.session.dir", ".cartify/sessions")),
+            Duration.ofMinutes(Long.getLong("cartify.session.ttlMinutes", 30)));
+
+    private final Path directory;
+    private final Duration timeToLive;
+    private final Map<String, SessionSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    SessionSnapshotCache(Path directory, Duration timeToLive) {
+        this.directory = directory;
+        this.timeToLive = timeToLive;
+    }
+
+    public static SessionSnapshotCache getInstance() {
+        return INSTANCE;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Tries to log the browser in as the account from a cached snapshot.
+     * Leaves the browser on the profile page and returns true when that worked;
+     * on false the caller logs in for real and stores a fresh snapshot.
+     */
+    public boolean restore(WebDriver driver, TestAccount account) {
+        SessionSnapshot snapshot = get(account);
+        if (snapshot == null) {
+            return false;
+        }
+        ProfilePage profilePage = new ProfilePage(driver);
+        String origin = CartifyConfig.getOrigin();
+        try {
+            if (driver.getCurrentUrl().startsWith(origin)) {
+                snapshot.restoreInPlace(driver);
+                profilePage.open();
+            } else if (driver instanceof HasCdp) {
+                // Restored before the profile page's own scripts run: no extra navigation
+                String script = snapshot.restoreOnNextDocument((HasCdp) driver, origin);
+                try {
+                    profilePage.open();
+                } finally {
+                    SessionSnapshot.removeDocumentScript((HasCdp) driver, script);
+                }
+            } else {
+                driver.get(CartifyConfig.url("/"));
+                snapshot.restoreInPlace(driver);
+                profilePage.open();
+            }
+        } catch (WebDriverException e) {
+            System.out.println("Session snapshot for " + account + " could not be restored: " + e.getMessage());
+            invalidate(account);
+            return false;
+        }
+        if (!profilePage.isProfileLoaded(VALIDATION_TIMEOUT)) {
+            System.out.println("Session snapshot for " + account + " is no longer logged in, discarding it");
+            invalidate(account);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Snapshots the logged-in state of the page the driver is on.
+     */
+    public void capture(WebDriver driver, TestAccount account) {
+        SessionSnapshot snapshot = SessionSnapshot.capture(driver, timeToLive);
+        snapshots.put(account.getUsername(), snapshot);
+        write(account, snapshot);
+    }
+
+    public void invalidate(TestAccount account) {
+        snapshots.remove(account.getUsername());
+        try {
+            Files.deleteIfExists(file(account));
+        } catch (IOException e) {
+            System.out.println("Failed to delete session snapshot " + file(account) + ": " + e.getMessage());
+        }
+    }
+
+    private SessionSnapshot get(TestAccount account) {
+        SessionSnapshot snapshot = snapshots.computeIfAbsent(account.getUsername(), username -> read(account));
+        if (snapshot != null && snapshot.isExpired()) {
+            invalidate(account);
+            return null;
+        }
+        return snapshot;
+    }
+
+    private SessionSnapshot read(TestAccount account) {
+        Path file = file(account);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            Map<String, Object> json = new Json().toType(Files.readString(file, StandardCharsets.UTF_8), JSON_TYPE);
+            return SessionSnapshot.fromJson(json);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Ignoring unreadable session snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(TestAccount account, SessionSnapshot snapshot) {
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, account.getUsername(), ".tmp");
+            Files.writeString(temp, new Json().toJson(snapshot.toJson()), StandardCharsets.UTF_8);
+            Files.move(temp, file(account), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write session snapshot for " + account, e);
+        }
+    }
+
+    private Path file(TestAccount account) {
+        return directory.resolve(account.getUsername() + ".json");
+    }
+}
@@ -0,0 +1,44 @@
+package com.cartify.users;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+
+/**
+ * StorageAccountProvisioner: Writes accounts straight into the 'users' list the
+ * local stand-in site keeps in localStorage, which is all its register wizard
+ * does on submit. Used by default only with -Dcartify.site=local.
+ * Pooled browsers clear storage between tests, so the account is written again
+ * on every lease; that costs one script call instead of a registration.
+ */
+public class StorageAccountProvisioner implements AccountProvisioner {
+
+    private static final String INSTALL_SCRIPT =
+            "var account = arguments[0];"
+            + "var users = [];"
+            + "try { users = JSON.parse(localStorage.getItem('users')) || []; } catch (e) {}"
+            + "users = users.filter(function (u) { return u.username !== account.username; });"
+            + "users.push(account);"
+            + "localStorage.setItem('users', JSON.stringify(users));";
+
+    @Override
+    public String scope() {
+        return "browser-storage";
+    }
+
+    @Override
+    public boolean installsInBrowser() {
+        return true;
+    }
+
+    @Override
+    public void provision(List<TestAccount> accounts) {
+        // Nothing to register up front: the records are written at lease time
+    }
+
+    @Override
+    public void install(WebDriver driver, TestAccount account) {
+        ((JavascriptExecutor) driver).executeScript(INSTALL_SCRIPT, account.toRecord());
+    }
+}
@@ -0,0 +1,125 @@
+package com.cartify.users;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * TestAccount: A registered Cartify user that tests can log in with.
+ * Field names follow the user records the site keeps in web storage.
+ */
+public final class TestAccount {
+
+    private static final String DEFAULT_PASSWORD = "Password123!";
+
+    private final String username;
+    private final String email;
+    private final String password;
+    private final String firstName;
+    private final String lastName;
+    private final String phone;
+    private final String birthDate;
+    private final boolean male;
+    private final Map<String, String> address;
+
+    private TestAccount(String username, String email, String password, String firstName, String lastName,
+            String phone, String birthDate, boolean male, Map<String, String> address) {
+        this.username = username;
+        this.email = email;
+        this.password = password;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.phone = phone;
+        this.birthDate = birthDate;
+        this.male = male;
+        this.address = Map.copyOf(address);
+    }
+
+    /**
+     * A new account with a unique username and email.
+     */
+    public static TestAccount generate() {
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+        String username = "user_" + uniqueId;
+        Map<String, String> address = new LinkedHashMap<>();
+        address.put("street", "123 Pool St");
+        address.put("city", "Test City");
+        address.put("state", "Test State");
+        address.put("zip", "12345");
+        address.put("country", "Test Country");
+        return new TestAccount(username, "pool_" + uniqueId + "@test.com", DEFAULT_PASSWORD,
+                "Pool", "Tester", "1234567890", "01/01/1995", true, address);
+    }
+
+    @SuppressWarnings("unchecked")
+    static TestAccount fromRecord(Map<String, Object> record) {
+        return new TestAccount(
+                (String) record.get("username"),
+                (String) record.get("email"),
+                (String) record.get("password"),
+                (String) record.get("firstName"),
+                (String) record.get("lastName"),
+                (String) record.get("phone"),
+                (String) record.get("birthDate"),
+                "male".equals(record.get("gender")),
+                (Map<String, String>) record.getOrDefault("address", Map.of()));
+    }
+
+    /**
+     * The account as the site stores it under the 'users' key.
+     */
+    public Map<String, Object> toRecord() {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("email", email);
+        record.put("username", username);
+        record.put("password", password);
+        record.put("firstName", firstName);
+        record.put("lastName", lastName);
+        record.put("phone", phone);
+        record.put("birthDate", birthDate);
+        record.put("gender", male ? "male" : "female");
+        record.put("address", address);
+        return record;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getBirthDate() {
+        return birthDate;
+    }
+
+    public boolean isMale() {
+        return male;
+    }
+
+    public String getAddress(String field) {
+        return address.get(field);
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -0,0 +1,93 @@
+package com.cartify.users;
+
+import com.cartify.config.CartifyConfig;
+import com.cartify.driver.DriverPool;
+import com.cartify.pages.RegisterPage;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * UiAccountProvisioner: Registers accounts through the register wizard, for
+ * deployments that keep users on the server. A batch is split across a few
+ * pooled browsers, each registering its share back to back, and the accounts
+ * are then reused across runs.
+ */
+public class UiAccountProvisioner implements AccountProvisioner {
+
+    private final int browsers;
+
+    public UiAccountProvisioner(int browsers) {
+        this.browsers = Math.max(1, browsers);
+    }
+
+    @Override
+    public String scope() {
+        return CartifyConfig.getBaseUrl();
+    }
+
+    @Override
+    public void provision(List<TestAccount> accounts) {
+        int workers = Math.min(browsers, accounts.size());
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                List<TestAccount> share = new ArrayList<>();
+                for (int j = i; j < accounts.size(); j += workers) {
+                    share.add(accounts.get(j));
+                }
+                results.add(executor.submit(() -> registerAll(share)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to provision test accounts through the UI", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void registerAll(List<TestAccount> share) {
+        WebDriver driver = DriverPool.getInstance().acquire();
+        try {
+            for (TestAccount account : share) {
+                register(driver, account);
+            }
+        } finally {
+            DriverPool.getInstance().release(driver);
+        }
+    }
+
+    private static void register(WebDriver driver, TestAccount account) {
+        RegisterPage registerPage = new RegisterPage(driver);
+        registerPage.open();
+        registerPage.fillAccountInfo(account.getEmail(), account.getUsername(), account.getPassword());
+        registerPage.fillPersonalInfo(account.getFirstName(), account.getLastName(), account.getPhone());
+        registerPage.fillDate(account.getBirthDate());
+        registerPage.selectGender(account.isMale());
+        registerPage.clickNext();
+        registerPage.fillAddress(account.getAddress("street"), account.getAddress("city"),
+                account.getAddress("state"), account.getAddress("zip"), account.getAddress("country"));
+        new WebDriverWait(driver, Duration.ofSeconds(10)).until(ExpectedConditions.urlContains("login"));
+        System.out.println("Provisioned test account " + account);
+    }
+
+    @Override
+    public boolean installsInBrowser() {
+        return false;
+    }
+
+    @Override
+    public void install(WebDriver driver, TestAccount account) {
+        // Already known to the server
+    }
+}
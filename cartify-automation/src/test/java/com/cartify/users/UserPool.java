@@ -0,0 +1,163 @@
+package com.cartify.users;
+
+import com.cartify.config.CartifyConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * UserPool: Hands out already registered accounts so flows that only need a
+ * logged-in user skip the register wizard. Each account is leased to one test
+ * at a time, since tests change its cart and wishlist.
+ *
+ * Accounts are provisioned in batches when the pool runs dry and kept in a
+ * JSON file, per provisioner scope, so later runs reuse them.
+ *
+ * Settings (system properties):
+ * cartify.users.file        - pool file (default .cartify/accounts.json)
+ * cartify.users.provisioner - ui (register wizard) or storage (write the local stand-in's localStorage user list);
+ *                             default storage with -Dcartify.site=local, otherwise ui
+ * cartify.users.batch       - accounts provisioned whenever the pool runs dry (default 4)
+ */
+public class UserPool {
+
+    private static final Type FILE_TYPE = new TypeToken<Map<String, List<Map<String, Object>>>>() {
+    }.getType();
+
+    private static volatile UserPool instance;
+
+    private final Path file;
+    private final AccountProvisioner provisioner;
+    private final int batchSize;
+    private final List<TestAccount> known = new ArrayList<>();
+    private final ConcurrentLinkedDeque<TestAccount> idle = new ConcurrentLinkedDeque<>();
+
+    UserPool(Path file, AccountProvisioner provisioner, int batchSize) {
+        this.file = file;
+        this.provisioner = provisioner;
+        this.batchSize = Math.max(1, batchSize);
+        for (Map<String, Object> record : readFile().getOrDefault(provisioner.scope(), List.of())) {
+            TestAccount account = TestAccount.fromRecord(record);
+            known.add(account);
+            idle.add(account);
+        }
+    }
+
+    // Created on first use: the provisioner scope may depend on the base URL,
+    // which the local site only sets at suite start
+    public static UserPool getInstance() {
+        UserPool pool = instance;
+        if (pool == null) {
+            synchronized (UserPool.class) {
+                pool = instance;
+                if (pool == null) {
+                    int batch = Integer.getInteger("cartify.users.batch", 4);
+                    pool = new UserPool(Paths.get(System.getProperty("cartify.users.file", ".cartify/accounts.json")),
+                            createProvisioner(batch), batch);
+                    instance = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static AccountProvisioner createProvisioner(int batch) {
+        // Only the local stand-in keeps its users in localStorage; the live site registers for real
+        String name = System.getProperty("cartify.users.provisioner",
+                "local".equalsIgnoreCase(System.getProperty("cartify.site")) ? "storage" : "ui");
+        switch (name) {
+            case "storage":
+                return new StorageAccountProvisioner();
+            case "ui":
+                return new UiAccountProvisioner(batch);
+            default:
+                throw new IllegalArgumentException("Unknown cartify.users.provisioner: " + name);
+        }
+    }
+
+    /**
+     * Leases an account and makes it usable in the given browser. A browser that
+     * is not on the site yet (a fresh lease is on about:blank, whose storage is
+     * not the site's) is sent to the home page first when the provisioner needs it.
+     */
+    public TestAccount lease(WebDriver driver) {
+        TestAccount account = idle.pollFirst();
+        while (account == null) {
+            provisionBatch();
+            account = idle.pollFirst();
+        }
+        if (provisioner.installsInBrowser() && !driver.getCurrentUrl().startsWith(CartifyConfig.getOrigin())) {
+            driver.get(CartifyConfig.url("/"));
+        }
+        provisioner.install(driver, account);
+        return account;
+    }
+
+    public void release(TestAccount account) {
+        idle.addFirst(account);
+    }
+
+    private synchronized void provisionBatch() {
+        if (!idle.isEmpty()) {
+            return;
+        }
+        List<TestAccount> batch = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(TestAccount.generate());
+        }
+        long start = System.currentTimeMillis();
+        provisioner.provision(batch);
+        known.addAll(batch);
+        writeFile();
+        idle.addAll(batch);
+        System.out.println("Provisioned " + batch.size() + " test accounts (" + provisioner.scope() + ") in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private Map<String, List<Map<String, Object>>> readFile() {
+        if (!Files.exists(file)) {
+            return new HashMap<>();
+        }
+        try {
+            Map<String, List<Map<String, Object>>> pools = new Json().toType(
+                    Files.readString(file, StandardCharsets.UTF_8), FILE_TYPE);
+            return pools != null ? pools : new HashMap<>();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the user pool " + file, e);
+        }
+    }
+
+    // Re-reads the file so pools of other scopes survive, then swaps it in atomically
+    private void writeFile() {
+        Map<String, List<Map<String, Object>>> pools = new LinkedHashMap<>(readFile());
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (TestAccount account : known) {
+            records.add(account.toRecord());
+        }
+        pools.put(provisioner.scope(), records);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "accounts", ".tmp");
+            Files.writeString(temp, new Json().toJson(pools), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the user pool " + file, e);
+        }
+    }
+}
@@ -1,105 +1,114 @@
 package com.cartify.utils;
 
+import com.cartify.distributed.Worker;
+import com.cartify.listeners.TestListener;
+import com.cartify.reporting.DurationStore;
+import com.cartify.reporting.ResultRecord;
+import com.cartify.reporting.ResultReports;
+import com.cartify.reporting.ResultSink;
+import com.cartify.reporting.Shard;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
-public class CustomTestListener implements ITestListener {
+/**
+ * CustomTestListener: Writes summary_report.txt and bug_report.txt.
+ * Each finished test is appended to the results stream (see ResultSink)
+ * right away instead of being held in memory; the reports are derived
+ * from that stream when a test context finishes. At the end of an
+ * unsharded suite the durations also go into the DurationStore; sharded
+ * runs leave that to ResultMerger, which sees every shard.
+ */
+public class CustomTestListener implements ITestListener, ISuiteListener {
 
-    private List<ITestResult> passedTests = new ArrayList<>();
-    private List<ITestResult> failedTests = new ArrayList<>();
-    private List<ITestResult> skippedTests = new ArrayList<>();
+    private ResultSink sink;
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        passedTests.add(result);
+        append(result, ResultRecord.Status.PASS);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        failedTests.add(result);
+        append(result, ResultRecord.Status.FAIL);
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        skippedTests.add(result);
+        append(result, ResultRecord.Status.SKIP);
     }
 
     @Override
-    public void onFinish(ITestContext context) {
-        generateSummaryReport();
-        if (!failedTests.isEmpty()) {
-            generateBugReport();
+    public synchronized void onFinish(ITestContext context) {
+        if (Worker.defersSuiteEnd()) {
+            return;
+        }
+        try {
+            ResultSink results = sink();
+            results.flush();
+            ResultReports.write(results.getFile(), Shard.path("summary_report.txt"), Shard.path("bug_report.txt"));
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
 
-    private void generateSummaryReport() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("summary_report.txt"))) {
-            writer.write("Test Execution Summary Report");
-            writer.newLine();
-            writer.write("=============================");
-            writer.newLine();
-            writer.write("Total Tests Run: " + (passedTests.size() + failedTests.size() + skippedTests.size()));
-            writer.newLine();
-            writer.write("Passed: " + passedTests.size());
-            writer.newLine();
-            writer.write("Failed: " + failedTests.size());
-            writer.newLine();
-            writer.write("Skipped: " + skippedTests.size());
-            writer.newLine();
-            writer.newLine();
-
-            writer.write("Detailed Results:");
-            writer.newLine();
-            for (ITestResult result : passedTests) {
-                writer.write("[PASS] " + result.getName());
-                writer.newLine();
-            }
-            for (ITestResult result : failedTests) {
-                writer.write("[FAIL] " + result.getName());
-                writer.newLine();
-            }
-            for (ITestResult result : skippedTests) {
-                writer.write("[SKIP] " + result.getName());
-                writer.newLine();
+    @Override
+    public synchronized void onFinish(ISuite suite) {
+        if (Worker.defersSuiteEnd()) {
+            return;
+        }
+        try {
+            ResultSink results = sink();
+            results.close();
+            if (!Shard.isSharded()) {
+                DurationStore durations = DurationStore.load(DurationStore.defaultFile());
+                durations.recordAll(results.getFile());
+                durations.save();
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private void generateBugReport() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("bug_report.txt"))) {
-            writer.write("Bug Report");
-            writer.newLine();
-            writer.write("==========");
-            writer.newLine();
-
-            for (ITestResult result : failedTests) {
-                writer.write("Test Case: " + result.getName());
-                writer.newLine();
-                writer.write("Class: " + result.getTestClass().getName());
-                writer.newLine();
-                writer.write("Exception: " + result.getThrowable());
-                writer.newLine();
+    /**
+     * The compact record of a finished test, as written to the results stream,
+     * with the report artifacts TestListener left on the result.
+     */
+    @SuppressWarnings("unchecked")
+    public static ResultRecord toRecord(ITestResult result, ResultRecord.Status status) {
+        Throwable throwable = result.getThrowable();
+        return new ResultRecord(
+                result.getName(),
+                result.getTestClass().getName(),
+                status,
+                result.getStartMillis(),
+                result.getEndMillis() - result.getStartMillis(),
+                Thread.currentThread().getName(),
+                ResultRecord.describeParameters(result.getParameters()),
+                throwable != null ? throwable.toString() : null,
+                ResultRecord.describeStackTrace(throwable),
+                (String) result.getAttribute(TestListener.REPORT_ATTRIBUTE),
+                (String) result.getAttribute(TestListener.SCREENSHOT_ATTRIBUTE),
+                (String) result.getAttribute(TestListener.FLIGHT_RECORDING_ATTRIBUTE),
+                (List<String>) result.getAttribute(TestListener.STEPS_ATTRIBUTE));
+    }
 
-                // Stack Trace
-                writer.write("Stack Trace:");
-                writer.newLine();
-                for (StackTraceElement element : result.getThrowable().getStackTrace()) {
-                    writer.write("\tat " + element.toString());
-                    writer.newLine();
-                }
-                writer.write("--------------------------------------------------");
-                writer.newLine();
-            }
+    private void append(ITestResult result, ResultRecord.Status status) {
+        try {
+            sink().append(toRecord(result, status));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    private synchronized ResultSink sink() throws IOException {
+        if (sink == null) {
+            sink = ResultSink.create(ResultSink.defaultFile());
+        }
+        return sink;
+    }
 }
@@ -1,13 +1,19 @@
 package com.cartify.utils;
 
 import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 
+/**
+ * ExtentManager: Owns the shared ExtentReports instance.
+ * ExtentReports is not safe for concurrent test creation or flushing,
+ * so parallel listeners go through the synchronized helpers below.
+ */
 public class ExtentManager {
     private static ExtentReports extent;
 
-    public static ExtentReports createInstance(String fileName) {
+    public static synchronized ExtentReports createInstance(String fileName) {
         ExtentSparkReporter htmlReporter = new ExtentSparkReporter(fileName);
         htmlReporter.config().setTheme(Theme.DARK);
         htmlReporter.config().setDocumentTitle("Cartify Automation Report");
@@ -24,4 +30,18 @@ public class ExtentManager {
 
         return extent;
     }
+
+    public static synchronized ExtentReports getInstance() {
+        return extent;
+    }
+
+    public static synchronized ExtentTest createTest(String name) {
+        return extent.createTest(name);
+    }
+
+    public static synchronized void flush() {
+        if (extent != null) {
+            extent.flush();
+        }
+    }
 }
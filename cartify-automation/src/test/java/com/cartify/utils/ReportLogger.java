@@ -2,12 +2,27 @@ package com.cartify.utils;
 
 import com.aventstack.extentreports.Status;
 import com.cartify.listeners.TestListener;
+import com.cartify.reporting.Step;
+import com.cartify.reporting.StepTimeline;
 
 public class ReportLogger {
     public static void log(String message) {
-        if (TestListener.getTest() != null) {
-            TestListener.getTest().log(Status.INFO, message);
+        if (TestListener.hasTest()) {
+            TestListener.log(Status.INFO, timestamp() + message);
         }
         System.out.println(message); // Also log to console
     }
+
+    /**
+     * Opens a timed step in the current test's timeline; use with try-with-resources.
+     */
+    public static Step step(String name) {
+        return StepTimeline.begin(name);
+    }
+
+    // Offset from the start of the test, so report lines line up with the step timeline
+    private static String timestamp() {
+        StepTimeline timeline = StepTimeline.current();
+        return timeline != null ? "[+" + Step.format(timeline.getElapsedMillis()) + "] " : "";
+    }
 }
@@ -0,0 +1,23 @@
+/* Shared helpers for the local Cartify stand-in. State lives in web storage like the live site. */
+var Cartify = {
+  read: function (key, fallback, storage) {
+    try {
+      var value = JSON.parse((storage || localStorage).getItem(key));
+      return value === null ? fallback : value;
+    } catch (e) {
+      return fallback;
+    }
+  },
+  write: function (key, value, storage) {
+    (storage || localStorage).setItem(key, JSON.stringify(value));
+  },
+  users: function () {
+    return Cartify.read('users', []);
+  },
+  currentUser: function () {
+    return Cartify.read('currentUser', null) || Cartify.read('currentUser', null, sessionStorage);
+  },
+  money: function (value) {
+    return '$' + value.toFixed(2);
+  }
+};